@@ -2,14 +2,16 @@ package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,41 +19,50 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         RequestCoalescer coalescer,
+                         EtagCache etagCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                coalescer,
+                etagCache
         );
     }
 
-    public ResponseEntity<Object> addBooking(int userId, BookingCreateDto bookingCreateDto) {
+    public Mono<ResponseEntity<Object>> addBooking(int userId, BookingCreateDto bookingCreateDto) {
         return post("", userId, bookingCreateDto);
     }
 
-    public ResponseEntity<Object> approveBooking(int userId, int bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(int userId, int bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingById(int userId, Integer bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(int userId, Integer bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(int userId, String state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state
-        );
-        return get("?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllUserBookings(int userId, String state, String cursor, int limit) {
+        return getPage("", userId, state, cursor, limit);
     }
 
-    public ResponseEntity<Object> getAllUserItemsBookings(int userId, String state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state
-        );
-        return get("/owner?state={state}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllUserItemsBookings(int userId, String state, String cursor, int limit) {
+        return getPage("/owner", userId, state, cursor, limit);
+    }
+
+    private Mono<ResponseEntity<Object>> getPage(String path, int userId, String state, String cursor, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("limit", limit);
+        String query = "?state={state}&limit={limit}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get(path + query, userId, parameters);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+public class EtagCache {
+
+    private static final String METRIC = "gateway.etag.revalidations";
+
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public EtagCache(MeterRegistry meterRegistry,
+                     @Value("${shareit.etag-cache.max-size:64MB}") DataSize maxSize,
+                     @Value("${shareit.etag-cache.expire-after-access:10m}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher(EtagCache::weigh)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.etag");
+        this.notModified = meterRegistry.counter(METRIC, "result", "not_modified");
+        this.modified = meterRegistry.counter(METRIC, "result", "modified");
+    }
+
+    public ResponseEntity<Object> get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public ResponseEntity<Object> notModified(ResponseEntity<Object> cached) {
+        notModified.increment();
+        return cached;
+    }
+
+    public ResponseEntity<Object> modified(String key, ResponseEntity<Object> response) {
+        modified.increment();
+        if (response.getStatusCode().is2xxSuccessful()
+                && response.getHeaders().getETag() != null
+                && response.getBody() instanceof byte[]) {
+            cache.put(key, response);
+        } else {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static int weigh(String key, ResponseEntity<Object> response) {
+        return key.length() * 2 + ((byte[]) response.getBody()).length;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+
+    private static final String METRIC = "gateway.coalescing.requests";
+
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${shareit.coalescing.max-wait:10s}") Duration maxWait) {
+        this.maxWait = maxWait;
+        this.leaders = meterRegistry.counter(METRIC, "role", "leader");
+        this.followers = meterRegistry.counter(METRIC, "role", "follower");
+        this.fallbacks = meterRegistry.counter(METRIC, "role", "fallback");
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> created = share(key, call);
+            Mono<ResponseEntity<Object>> shared = inFlight.putIfAbsent(key, created);
+            if (shared == null) {
+                leaders.increment();
+                return created;
+            }
+            followers.increment();
+            return shared.timeout(maxWait, Mono.defer(() -> {
+                fallbacks.increment();
+                return inFlight.compute(key, (k, current) ->
+                        current == null || current == shared ? share(k, call) : current);
+            }));
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> share(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+        Mono<ResponseEntity<Object>> upstream = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(upstream);
+        return upstream;
+    }
+}
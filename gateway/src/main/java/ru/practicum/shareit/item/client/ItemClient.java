@@ -1,58 +1,114 @@
 package ru.practicum.shareit.item.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final int SUGGEST_CACHE_SIZE = 10_000;
+
+    private final Cache<String, ResponseEntity<Object>> suggestions;
+    private final CacheControl suggestCacheControl;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit.suggest.cache-ttl:5s}") Duration suggestCacheTtl,
+                      WebClient.Builder builder,
+                      RequestCoalescer coalescer,
+                      EtagCache etagCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                coalescer,
+                etagCache
         );
+        this.suggestions = Caffeine.newBuilder()
+                .maximumSize(SUGGEST_CACHE_SIZE)
+                .expireAfterWrite(suggestCacheTtl)
+                .build();
+        this.suggestCacheControl = CacheControl.maxAge(suggestCacheTtl).cachePublic();
     }
 
-    public ResponseEntity<Object> addItem(int userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> addItem(int userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> addComment(int itemId, int userId, CommentCreateDto commentCreateDto) {
+    public Mono<ResponseEntity<Object>> addComment(int itemId, int userId, CommentCreateDto commentCreateDto) {
         return post("/" + itemId + "/comment", userId, commentCreateDto);
     }
 
-    public ResponseEntity<Object> updateItem(int itemId, int userId, ItemUpdateDto itemUpdateDto) {
+    public Mono<ResponseEntity<Object>> updateItem(int itemId, int userId, ItemUpdateDto itemUpdateDto) {
         return patch("/" + itemId, userId, itemUpdateDto);
     }
 
-    public ResponseEntity<Object> getItem(int itemId, int userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(int itemId, int userId, String ifNoneMatch) {
+        return getConditional("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItems(int userId) {
+    public Mono<ResponseEntity<Object>> getItems(int userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchByText(String text, int userId) {
+    public Mono<ResponseEntity<Object>> searchByText(String text, boolean fuzzy, String cursor, int limit, int userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("fuzzy", fuzzy);
+        parameters.put("limit", limit);
+        String query = "/search/?text={text}&fuzzy={fuzzy}&limit={limit}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get(query, userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> suggest(String prefix, int limit, int userId) {
+        String key = prefix.strip().toLowerCase(Locale.ROOT) + "|" + limit;
+        ResponseEntity<Object> cached = suggestions.getIfPresent(key);
+        if (cached != null) return Mono.just(cached);
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "limit", limit
+        );
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, parameters)
+                .map(response -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) return response;
+                    ResponseEntity<Object> cacheable = ResponseEntity.ok()
+                            .contentType(response.getHeaders().getContentType())
+                            .cacheControl(suggestCacheControl)
+                            .body(response.getBody());
+                    suggestions.put(key, cacheable);
+                    return cacheable;
+                });
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(int itemId, int userId, LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "from", from,
+                "to", to
         );
-        return get("/search/?text={text}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 }
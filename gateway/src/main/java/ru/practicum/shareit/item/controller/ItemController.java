@@ -1,49 +1,76 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final String DEFAULT_LIMIT = "100";
+    private static final String DEFAULT_SUGGEST_LIMIT = "10";
+
     private final ItemClient itemClient;
 
     @PostMapping()
-    public ResponseEntity<Object> addItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") int userId) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") int userId) {
         return itemClient.addItem(userId, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestBody @Valid CommentCreateDto commentCreateDto, @PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestBody @Valid CommentCreateDto commentCreateDto, @PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId) {
         return itemClient.addComment(itemId, userId, commentCreateDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody @Valid ItemUpdateDto itemUpdateDto, @RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody @Valid ItemUpdateDto itemUpdateDto, @RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId) {
         return itemClient.updateItem(itemId, userId, itemUpdateDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId) {
-        return itemClient.getItem(itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItem(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader("X-Sharer-User-Id") int userId) {
         return itemClient.getItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchByText(@RequestParam String text, @RequestHeader("X-Sharer-User-Id") int userId) {
-        return itemClient.searchByText(text, userId);
+    public Mono<ResponseEntity<Object>> searchByText(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                     @RequestHeader("X-Sharer-User-Id") int userId) {
+        return itemClient.searchByText(text, fuzzy, cursor, limit, userId);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Object>> suggest(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = DEFAULT_SUGGEST_LIMIT) int limit,
+                                                @RequestHeader("X-Sharer-User-Id") int userId) {
+        return itemClient.suggest(prefix, limit, userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable int itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestHeader("X-Sharer-User-Id") int userId) {
+        return itemClient.getAvailability(itemId, userId, from, to);
     }
 }
@@ -2,12 +2,13 @@ package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EtagCache;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import java.util.Map;
@@ -18,24 +19,27 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         RequestCoalescer coalescer,
+                         EtagCache etagCache) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                coalescer,
+                etagCache
         );
     }
 
-    public ResponseEntity<Object> addRequest(int userId, ItemRequestCreateDto itemRequestCreateDto) {
+    public Mono<ResponseEntity<Object>> addRequest(int userId, ItemRequestCreateDto itemRequestCreateDto) {
         return post("", userId, itemRequestCreateDto);
     }
 
-    public ResponseEntity<Object> getRequests(int userId) {
+    public Mono<ResponseEntity<Object>> getRequests(int userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequest(int userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllRequest(int userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,7 +47,7 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(int userId, int requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequestById(int userId, int requestId, String ifNoneMatch) {
+        return getConditional("/" + requestId, userId, ifNoneMatch);
     }
 }
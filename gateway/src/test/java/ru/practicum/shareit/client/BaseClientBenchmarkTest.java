@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Tag("benchmark")
+public class BaseClientBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.gateway.concurrency", 2000);
+    private static final Duration UPSTREAM_DELAY = Duration.ofSeconds(1);
+
+    private static byte[] payload;
+    private static DisposableServer server;
+    private static ConnectionProvider connectionProvider;
+    private static BaseClient client;
+
+    @BeforeAll
+    static void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Дрель ").append(i)
+                    .append("\",\"description\":\"Аккумуляторная дрель в аренду\",\"available\":true}");
+        }
+        payload = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/slow/{id}", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.delay(UPSTREAM_DELAY).thenReturn("{\"id\":" + request.param("id") + "}")))
+                        .get("/items", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendByteArray(Mono.just(payload))))
+                .bindNow();
+        connectionProvider = ConnectionProvider.builder("benchmark")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) DataSize.ofMegabytes(16).toBytes()))
+                .build();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new BaseClient(webClient, new RequestCoalescer(meterRegistry, Duration.ofSeconds(10)),
+                new EtagCache(meterRegistry, DataSize.ofMegabytes(64), Duration.ofMinutes(10)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Test
+    public void slowUpstreamCallsAreServedByEventLoop() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+        List<ResponseEntity<Object>> responses = Flux.range(0, CONCURRENCY)
+                .flatMap(i -> client.get("/slow/" + i)
+                        .doOnNext(response -> threads.add(Thread.currentThread().getName())), CONCURRENCY)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        log.info("{} concurrent slow calls: {} ms, {} threads", CONCURRENCY, Math.round(elapsedMillis), threads.size());
+        Assertions.assertEquals(CONCURRENCY, responses.size());
+        Assertions.assertTrue(responses.stream().allMatch(response -> response.getStatusCode().is2xxSuccessful()));
+        Assertions.assertTrue(threads.size() <= LoopResources.DEFAULT_IO_WORKER_COUNT);
+        Assertions.assertTrue(elapsedMillis <= budget("budget.slow-upstream", UPSTREAM_DELAY.toMillis() * 5));
+    }
+
+    @Test
+    public void passThroughAllocatesLessThanJsonTree() {
+        ObjectMapper mapper = new ObjectMapper();
+        long passThrough = allocatedBytesPerRequest(() -> client.get("/items").block());
+        long jsonTree = allocatedBytesPerRequest(() -> {
+            ResponseEntity<Object> response = client.get("/items").block();
+            try {
+                mapper.writeValueAsBytes(mapper.readValue((byte[]) response.getBody(), Object.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("{} byte body: pass-through {} bytes/request, json tree {} bytes/request",
+                payload.length, passThrough, jsonTree);
+        Assertions.assertTrue(passThrough < jsonTree);
+        Assertions.assertTrue(passThrough <= budget("budget.pass-through-bytes", payload.length * 4));
+    }
+
+    private static long allocatedBytesPerRequest(Runnable request) {
+        for (int i = 0; i < 200; i++) {
+            request.run();
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < 1000; i++) {
+            request.run();
+        }
+        return (allocatedBytes() - before) / 1000;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) total += allocated;
+        }
+        return total;
+    }
+
+    private static double budget(String property, double defaultValue) {
+        return Double.parseDouble(System.getProperty(property, String.valueOf(defaultValue)));
+    }
+}
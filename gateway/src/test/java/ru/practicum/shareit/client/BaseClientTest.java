@@ -0,0 +1,175 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BaseClientTest {
+
+    private static final String ERROR_BODY = "{\"error\":\"Ошибка. Item не найден\"}";
+
+    private static final Map<String, Integer> STATUSES = new ConcurrentHashMap<>();
+    private static final Map<String, String> IF_NONE_MATCH = new ConcurrentHashMap<>();
+
+    private static DisposableServer server;
+    private static BaseClient client;
+
+    @BeforeAll
+    static void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/status/{code}", (request, response) -> response
+                                .status(Integer.parseInt(request.param("code")))
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(ERROR_BODY)))
+                        .get("/headers", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .header("X-Total-Count", "3")
+                                .header("Keep-Alive", "timeout=5")
+                                .header(HttpHeaders.UPGRADE, "h2c")
+                                .header(HttpHeaders.TRAILER, "Expires")
+                                .sendString(Mono.just("[]")))
+                        .get("/empty/{code}", (request, response) -> response
+                                .status(Integer.parseInt(request.param("code")))
+                                .send())
+                        .get("/large/{name}", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .sendByteArray(Mono.just(new byte[2048])))
+                        .get("/conditional/{name}", (request, response) -> {
+                            String name = request.param("name");
+                            String ifNoneMatch = request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH);
+                            IF_NONE_MATCH.put(name, String.valueOf(ifNoneMatch));
+                            int status = STATUSES.getOrDefault(name, 200);
+                            if (status != 200) {
+                                return response.status(status).sendString(Mono.just(ERROR_BODY));
+                            }
+                            response.header(HttpHeaders.ETAG, "\"v1\"")
+                                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                            if ("\"v1\"".equals(ifNoneMatch)) {
+                                return response.status(304).send();
+                            }
+                            return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"name\":\"" + name + "\"}"));
+                        }))
+                .bindNow();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new BaseClient(WebClient.create("http://localhost:" + server.port()),
+                new RequestCoalescer(meterRegistry, Duration.ofSeconds(10)),
+                new EtagCache(meterRegistry, DataSize.ofMegabytes(1), Duration.ofMinutes(10)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void errorStatusAndBodyArePassedUnchanged() {
+        for (int code : new int[]{400, 404, 409, 500, 503}) {
+            ResponseEntity<Object> response = client.get("/status/" + code).block();
+            Assertions.assertEquals(code, response.getStatusCodeValue());
+            Assertions.assertEquals(ERROR_BODY, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void successHeadersArePassedWithoutHopByHopHeaders() {
+        ResponseEntity<Object> response = client.get("/headers").block();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals("[]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        HttpHeaders headers = response.getHeaders();
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, headers.getContentType());
+        Assertions.assertEquals("\"v1\"", headers.getETag());
+        Assertions.assertEquals("3", headers.getFirst("X-Total-Count"));
+        Assertions.assertFalse(headers.containsKey("Keep-Alive"));
+        Assertions.assertFalse(headers.containsKey(HttpHeaders.UPGRADE));
+        Assertions.assertFalse(headers.containsKey(HttpHeaders.TRAILER));
+        Assertions.assertFalse(headers.containsKey(HttpHeaders.CONNECTION));
+        Assertions.assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        Assertions.assertFalse(headers.containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    public void emptyUpstreamBodyStillGivesResponse() {
+        for (int code : new int[]{200, 204, 404, 500}) {
+            ResponseEntity<Object> response = client.get("/empty/" + code).block();
+            Assertions.assertNotNull(response);
+            Assertions.assertEquals(code, response.getStatusCodeValue());
+            Assertions.assertNull(response.getBody());
+        }
+    }
+
+    @Test
+    public void notModifiedFromServerServesCachedBytes() {
+        ResponseEntity<Object> first = client.getConditional("/conditional/cached", null, null).block();
+        Assertions.assertEquals("null", IF_NONE_MATCH.get("cached"));
+        ResponseEntity<Object> second = client.getConditional("/conditional/cached", null, null).block();
+        Assertions.assertEquals("\"v1\"", IF_NONE_MATCH.get("cached"));
+        Assertions.assertEquals(HttpStatus.OK, second.getStatusCode());
+        Assertions.assertArrayEquals((byte[]) first.getBody(), (byte[]) second.getBody());
+        Assertions.assertEquals("{\"name\":\"cached\"}", new String((byte[]) second.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void matchingIfNoneMatchGivesNotModifiedWithVary() {
+        ResponseEntity<Object> response = client.getConditional("/conditional/client", null, "\"v0\", \"v1\"").block();
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        Assertions.assertEquals("\"v1\"", response.getHeaders().getETag());
+        Assertions.assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+        Assertions.assertNull(response.getBody());
+        ResponseEntity<Object> changed = client.getConditional("/conditional/client", null, "\"v0\"").block();
+        Assertions.assertEquals(HttpStatus.OK, changed.getStatusCode());
+    }
+
+    @Test
+    public void nonSuccessInvalidatesCachedEntry() {
+        client.getConditional("/conditional/failing", null, null).block();
+        STATUSES.put("failing", 500);
+        ResponseEntity<Object> failed = client.getConditional("/conditional/failing", null, "\"v1\"").block();
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, failed.getStatusCode());
+        Assertions.assertEquals(ERROR_BODY, new String((byte[]) failed.getBody(), StandardCharsets.UTF_8));
+        STATUSES.remove("failing");
+        ResponseEntity<Object> recovered = client.getConditional("/conditional/failing", null, null).block();
+        Assertions.assertEquals("null", IF_NONE_MATCH.get("failing"));
+        Assertions.assertEquals(HttpStatus.OK, recovered.getStatusCode());
+    }
+
+    @Test
+    public void upstreamBodyOverCodecLimitGivesBadGateway() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BaseClient limited = new BaseClient(WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(1024))
+                .build(),
+                new RequestCoalescer(meterRegistry, Duration.ofSeconds(10)),
+                new EtagCache(meterRegistry, DataSize.ofMegabytes(1), Duration.ofMinutes(10)));
+        for (ResponseEntity<Object> response : List.of(limited.get("/large/plain").block(),
+                limited.getConditional("/large/conditional", null, null).block())) {
+            Assertions.assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+            Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            Assertions.assertEquals("Ответ сервера превышает допустимый размер",
+                    ((Map<?, ?>) response.getBody()).get("error"));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+public class EtagCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private EtagCache etagCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        etagCache = new EtagCache(meterRegistry, DataSize.ofBytes(1000), Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void successWithEtagIsCached() {
+        ResponseEntity<Object> response = response(HttpStatus.OK, 100);
+        Assertions.assertSame(response, etagCache.modified("a", response));
+        Assertions.assertSame(response, etagCache.get("a"));
+        Assertions.assertSame(response, etagCache.notModified(etagCache.get("a")));
+        Assertions.assertEquals(1, meterRegistry.counter("gateway.etag.revalidations", "result", "modified").count());
+        Assertions.assertEquals(1, meterRegistry.counter("gateway.etag.revalidations", "result", "not_modified").count());
+    }
+
+    @Test
+    public void responseWithoutEtagIsNotCached() {
+        etagCache.modified("a", ResponseEntity.ok().body(new byte[10]));
+        Assertions.assertNull(etagCache.get("a"));
+    }
+
+    @Test
+    public void nonSuccessInvalidatesCachedEntry() {
+        etagCache.modified("a", response(HttpStatus.OK, 100));
+        etagCache.modified("a", response(HttpStatus.INTERNAL_SERVER_ERROR, 100));
+        Assertions.assertNull(etagCache.get("a"));
+        etagCache.modified("a", response(HttpStatus.OK, 100));
+        etagCache.modified("a", ResponseEntity.notFound().build());
+        Assertions.assertNull(etagCache.get("a"));
+    }
+
+    @Test
+    public void totalWeightStaysWithinMaxSize() {
+        etagCache.modified("a", response(HttpStatus.OK, 600));
+        etagCache.modified("b", response(HttpStatus.OK, 600));
+        etagCache.cleanUp();
+        Assertions.assertTrue(etagCache.get("a") == null || etagCache.get("b") == null);
+        etagCache.modified("big", response(HttpStatus.OK, 2000));
+        etagCache.cleanUp();
+        Assertions.assertNull(etagCache.get("big"));
+    }
+
+    private static ResponseEntity<Object> response(HttpStatus status, int size) {
+        return ResponseEntity.status(status).eTag("\"v1\"").body(new byte[size]);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class RequestCoalescerTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMillis(200);
+
+    private MeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry, MAX_WAIT);
+    }
+
+    @Test
+    public void concurrentSubscribersShareOneUpstreamCall() {
+        Supplier<Mono<ResponseEntity<Object>>> call = () -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(50)).thenReturn(ResponseEntity.ok().build());
+        };
+        List<ResponseEntity<Object>> responses = Flux.range(0, 10)
+                .flatMap(i -> coalescer.coalesce("key", call))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        Assertions.assertEquals(10, responses.size());
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, count("leader"));
+        Assertions.assertEquals(9, count("follower"));
+    }
+
+    @Test
+    public void entryIsRemovedAfterError() {
+        Supplier<Mono<ResponseEntity<Object>>> call = () -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("upstream"));
+        };
+        Assertions.assertThrows(IllegalStateException.class, () -> coalescer.coalesce("key", call).block());
+        Assertions.assertThrows(IllegalStateException.class, () -> coalescer.coalesce("key", call).block());
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(2, count("leader"));
+    }
+
+    @Test
+    public void entryIsRemovedAfterCancel() {
+        Disposable subscription = coalescer.coalesce("key", () -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        }).subscribe();
+        subscription.dispose();
+        ResponseEntity<Object> response = coalescer.coalesce("key", () -> {
+            calls.incrementAndGet();
+            return Mono.just(ResponseEntity.ok().build());
+        }).block(Duration.ofSeconds(5));
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(2, count("leader"));
+    }
+
+    @Test
+    public void timedOutFollowersJoinOneFreshCall() {
+        Supplier<Mono<ResponseEntity<Object>>> call = () -> calls.incrementAndGet() == 1
+                ? Mono.never()
+                : Mono.delay(Duration.ofMillis(50)).thenReturn(ResponseEntity.ok().build());
+        Disposable leader = coalescer.coalesce("key", call).subscribe();
+        List<ResponseEntity<Object>> responses = Flux.range(0, 5)
+                .flatMap(i -> coalescer.coalesce("key", call))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        leader.dispose();
+        Assertions.assertEquals(5, responses.size());
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(5, count("fallback"));
+    }
+
+    private double count(String role) {
+        return meterRegistry.counter("gateway.coalescing.requests", "role", role).count();
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -13,6 +15,9 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final String DEFAULT_LIMIT = "100";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -33,15 +38,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllUserBookings(@RequestParam(defaultValue = "ALL") String state,
-                                               @RequestHeader("X-Sharer-User-Id") int userId) {
-        return bookingService.getAllUserBookings(state, userId);
+    public ResponseEntity<List<BookingDto>> getAllUserBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                               @RequestHeader("X-Sharer-User-Id") int userId) {
+        return withNextCursor(bookingService.getAllUserBookings(state, userId, cursor, limit), limit);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllUserItemsBookings(@RequestParam(defaultValue = "ALL") String state,
-                                                    @RequestHeader("X-Sharer-User-Id") int userId) {
-        return bookingService.getAllUserItemsBookings(state, userId);
+    public ResponseEntity<List<BookingDto>> getAllUserItemsBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                                    @RequestHeader("X-Sharer-User-Id") int userId) {
+        return withNextCursor(bookingService.getAllUserItemsBookings(state, userId, cursor, limit), limit);
     }
 
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int limit) {
+        if (bookings.size() < limit) {
+            return ResponseEntity.ok(bookings);
+        }
+        String nextCursor = BookingCursor.of(bookings.get(bookings.size() - 1)).encode();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(bookings);
+    }
 }
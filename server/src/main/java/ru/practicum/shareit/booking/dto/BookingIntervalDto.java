@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingIntervalDto {
+    private Integer itemId;
+    private Integer id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
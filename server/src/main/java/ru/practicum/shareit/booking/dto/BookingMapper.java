@@ -23,4 +23,11 @@ public class BookingMapper {
                 booking.getBooker().getId()
         );
     }
+
+    public static GetItemBookingDto toGetItemBookingDto(ItemBookingDto itemBookingDto) {
+        return new GetItemBookingDto(
+                itemBookingDto.getId(),
+                itemBookingDto.getBookerId()
+        );
+    }
 }
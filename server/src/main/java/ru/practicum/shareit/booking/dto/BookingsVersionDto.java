@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingsVersionDto {
+    private Long count;
+    private Integer lastId;
+    private Long started;
+    private Long rejected;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemBookingDto {
+    private Integer itemId;
+    private Integer id;
+    private Integer bookerId;
+}
@@ -13,7 +13,7 @@ public interface BookingService {
 
     BookingDto getBookingById(int bookingId, int userId);
 
-    List<BookingDto> getAllUserBookings(String state, int userId);
+    List<BookingDto> getAllUserBookings(String state, int userId, String cursor, int limit);
 
-    List<BookingDto> getAllUserItemsBookings(String state, int userId);
+    List<BookingDto> getAllUserItemsBookings(String state, int userId, String cursor, int limit);
 }
@@ -2,17 +2,24 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingFilter;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.dto.ItemWithUserDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,25 +30,33 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final int MAX_LIMIT = 1000;
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+
+    @Value("${shareit.bookings.lock-item:false}")
+    private boolean lockItem;
 
     @Override
+    @Transactional
     public BookingDto addBooking(BookingCreateDto bookingCreateDto, int userId) {
 
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
-        }
         Integer itemId = bookingCreateDto.getItemId();
-        Optional<Item> itemOptional = itemRepository.findById(itemId);
-        if (itemOptional.isEmpty()) {
+        Optional<ItemWithUserDto> found = itemRepository.findWithUser(itemId, userId);
+        if (found.isEmpty()) {
+            if (!userExistenceCache.exists(userId)) {
+                throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
+            }
             throw new ItemNotFoundException(String.format("Item'a с id = %s не существует", itemId));
         }
-        Item item = itemOptional.get();
+        Item item = found.get().getItem();
         if (!item.isAvailable()) {
             throw new ItemNotAvailableException(String.format("Item с id = %s не доступен для бронирования", itemId));
         }
@@ -65,18 +80,35 @@ public class BookingServiceImpl implements BookingService {
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Время начала бронирования не может быть позже времени окончания бонирования");
         }
+        if (lockItem) {
+            itemRepository.findByIdForUpdate(itemId);
+        }
+        if (bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(itemId, BookingStatus.BLOCKING, end, start)) {
+            throw overlapException(itemId, start, end);
+        }
         Booking booking = new Booking(null,
                 bookingCreateDto.getStart(),
                 bookingCreateDto.getEnd(),
-                itemOptional.get(),
-                userOptional.get(),
+                item,
+                found.get().getUser(),
                 BookingStatus.WAITING.name());
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) e.getCause()).getConstraintName())) {
+                throw overlapException(itemId, start, end);
+            }
+            throw e;
+        }
+        availabilityIndex.add(itemId, booking.getId(), start, end);
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(int bookingId, int userId, boolean approved) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOptional = bookingRepository.findWithItemAndBookerById(bookingId);
         if (bookingOptional.isEmpty()) {
             throw new BookingNotFoundException(String.format("Бронирования с id = %s не существует", bookingId));
         }
@@ -95,17 +127,20 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(BookingStatus.REJECTED.name());
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        bookingRepository.save(booking);
+        if (!approved) {
+            availabilityIndex.remove(item.getId(), booking.getId(), booking.getStart());
+        }
+        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingDto getBookingById(int bookingId, int userId) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
+        Optional<Booking> bookingOptional = bookingRepository.findWithItemAndBookerById(bookingId);
         if (bookingOptional.isEmpty()) {
             throw new BookingNotFoundException(String.format("Бронирования с id = %s не существует", bookingId));
         }
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userExistenceCache.exists(userId)) {
             throw new IncorrectItemOwnerIdException(String.format("Пользователя с id = %s не существует", userId));
         }
         Booking booking = bookingOptional.get();
@@ -123,92 +158,68 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllUserBookings(String state, int userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+    public List<BookingDto> getAllUserBookings(String state, int userId, String cursor, int limit) {
+        if (!userExistenceCache.existsInDatabase(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
-        State filterState;
-        try {
-            filterState = State.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnknownStateException(String.format("Фильтр '" + state + "' не поддерживается.", state));
+        return findBookings(toFilter(state, cursor, limit).bookerId(userId).build());
+    }
+
+    @Override
+    public List<BookingDto> getAllUserItemsBookings(String state, int userId, String cursor, int limit) {
+        if (!userExistenceCache.existsInDatabase(userId)) {
+            throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
+        return findBookings(toFilter(state, cursor, limit).ownerId(userId).build());
+    }
+
+    private List<BookingDto> findBookings(BookingFilter filter) {
+        return bookingRepository.findFiltered(filter).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private BookingFilter.BookingFilterBuilder toFilter(String state, String cursor, int limit) {
+        State filterState = parseState(state);
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .cursor(BookingCursor.decode(cursor))
+                .limit(checkLimit(limit));
+        LocalDateTime now = LocalDateTime.now();
         switch (filterState) {
             case CURRENT:
-                return bookingRepository.findByBooker_idAndStartBeforeAndEndAfterOrderByBooker_idDesc(userId,
-                                LocalDateTime.now(), LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter.startBefore(now).endAfter(now);
             case PAST:
-                return bookingRepository.findByBooker_idAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter.endBefore(now);
             case FUTURE:
-                return bookingRepository.findByBooker_idAndStartAfterOrderByStartDesc(userId, LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter.startAfter(now);
             case WAITING:
-                return bookingRepository.findByBooker_idAndStatusOrderByStartDesc(userId,
-                                BookingStatus.WAITING.name()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter.status(BookingStatus.WAITING.name());
             case REJECTED:
-                return bookingRepository.findByBooker_idAndStatusOrderByStartDesc(userId,
-                                BookingStatus.REJECTED.name()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter.status(BookingStatus.REJECTED.name());
             case ALL:
             default:
-                return bookingRepository.findByBooker_idOrderByStartDesc(userId).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+                return filter;
         }
     }
 
-    @Override
-    public List<BookingDto> getAllUserItemsBookings(String state, int userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
-        }
-        State filterState;
+    private State parseState(String state) {
         try {
-            filterState = State.valueOf(state);
+            return State.valueOf(state);
         } catch (IllegalArgumentException e) {
             throw new UnknownStateException(String.format("Фильтр '" + state + "' не поддерживается.", state));
         }
+    }
 
-        List<Integer> itemsIds = itemRepository.findAllByOwnerOrderByIdAsc(userId).stream().map(Item::getId).collect(Collectors.toList());
-        switch (filterState) {
-            case CURRENT:
-                return bookingRepository.findByItem_idInAndStartBeforeAndEndAfterOrderByStartDesc(itemsIds,
-                                LocalDateTime.now(), LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findByItem_idInAndEndBeforeOrderByStartDesc(itemsIds, LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findByItem_idInAndStartAfterOrderByStartDesc(itemsIds, LocalDateTime.now()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findByItem_idInAndStatusOrderByStartDesc(itemsIds,
-                                BookingStatus.WAITING.name()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findByItem_idInAndStatusOrderByStartDesc(itemsIds,
-                                BookingStatus.REJECTED.name()).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-            case ALL:
-            default:
-                return bookingRepository.findByItem_idInOrderByStartDesc(itemsIds).stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
+    private int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException(String.format("Размер страницы должен быть от 1 до %s", MAX_LIMIT));
         }
+        return limit;
+    }
+
+    private BookingOverlapException overlapException(int itemId, LocalDateTime start, LocalDateTime end) {
+        log.warn("Item с id = {} уже забронирован на период с {} по {}", itemId, start, end);
+        return new BookingOverlapException(String.format("Item с id = %s уже забронирован на период с %s по %s",
+                itemId, start, end));
     }
 }
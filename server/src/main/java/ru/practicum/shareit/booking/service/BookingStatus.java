@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import java.util.List;
+
 public enum BookingStatus {
 
     APPROVED,
     CANCELED,
     REJECTED,
     WAITING;
+
+    public static final List<String> BLOCKING = List.of(WAITING.name(), APPROVED.name());
 }
 
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.service.BookingStatus;
+import ru.practicum.shareit.common.JournaledSnapshot;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final JournaledSnapshot<Map<Integer, ItemTimeline>> timelines =
+            new JournaledSnapshot<>(new ConcurrentHashMap<>());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        timelines.reload(() -> {
+            List<BookingIntervalDto> intervals = bookingRepository.findIntervalsEndingAfter(LocalDateTime.now(),
+                    BookingStatus.BLOCKING);
+            Map<Integer, ItemTimeline> loaded = new ConcurrentHashMap<>();
+            for (BookingIntervalDto interval : intervals) {
+                add(loaded, interval.getItemId(), interval.getId(), interval.getStart(), interval.getEnd());
+            }
+            log.info("Индекс доступности построен, бронирований: {}", intervals.size());
+            return loaded;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.availability.resync-interval:PT10M}",
+            initialDelayString = "${shareit.availability.resync-interval:PT10M}")
+    public void resync() {
+        load();
+    }
+
+    public void add(int itemId, int bookingId, LocalDateTime start, LocalDateTime end) {
+        TransactionHooks.afterCommit(() -> timelines.apply(current -> add(current, itemId, bookingId, start, end)));
+    }
+
+    public void remove(int itemId, int bookingId, LocalDateTime start) {
+        Interval probe = new Interval(bookingId, start, start);
+        TransactionHooks.afterCommit(() -> timelines.apply(current -> current.computeIfPresent(itemId,
+                (id, timeline) -> {
+                    timeline.intervals.remove(probe);
+                    return timeline.intervals.isEmpty() ? null : timeline;
+                })));
+    }
+
+    public List<FreeSlotDto> findFreeSlots(int itemId, LocalDateTime from, LocalDateTime to) {
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        ItemTimeline timeline = timelines.read(current -> current.get(itemId));
+        if (timeline != null) {
+            NavigableSet<Interval> candidates = timeline.intervals.subSet(
+                    Interval.probe(from.minus(timeline.maxLength)), true,
+                    Interval.probe(to), false);
+            for (Interval interval : candidates) {
+                if (!interval.end.isAfter(cursor)) continue;
+                if (interval.start.isAfter(cursor)) {
+                    slots.add(new FreeSlotDto(cursor, interval.start));
+                }
+                cursor = interval.end;
+                if (!cursor.isBefore(to)) break;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new FreeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.availability.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        timelines.apply(current -> {
+            for (Integer itemId : current.keySet()) {
+                current.computeIfPresent(itemId, (id, timeline) -> {
+                    timeline.prune(now);
+                    return timeline.intervals.isEmpty() ? null : timeline;
+                });
+            }
+        });
+    }
+
+    private static void add(Map<Integer, ItemTimeline> timelines, int itemId, int bookingId,
+                            LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(LocalDateTime.now())) return;
+        Interval interval = new Interval(bookingId, start, end);
+        timelines.compute(itemId, (id, timeline) -> {
+            if (timeline == null) timeline = new ItemTimeline();
+            timeline.add(interval);
+            return timeline;
+        });
+    }
+
+    private static final class ItemTimeline {
+        private final ConcurrentSkipListSet<Interval> intervals = new ConcurrentSkipListSet<>(Interval.ORDER);
+        private volatile Duration maxLength = Duration.ZERO;
+
+        private void add(Interval interval) {
+            Duration length = Duration.between(interval.start, interval.end);
+            if (length.compareTo(maxLength) > 0) maxLength = length;
+            intervals.add(interval);
+        }
+
+        private void prune(LocalDateTime now) {
+            Iterator<Interval> iterator = intervals.headSet(Interval.probe(now)).iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().end.isAfter(now)) iterator.remove();
+            }
+        }
+    }
+
+    private static final class Interval {
+        private static final Comparator<Interval> ORDER = Comparator.<Interval, LocalDateTime>comparing(i -> i.start)
+                .thenComparingInt(i -> i.bookingId);
+
+        private final int bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(int bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static Interval probe(LocalDateTime date) {
+            return new Interval(Integer.MIN_VALUE, date, date);
+        }
+    }
+}
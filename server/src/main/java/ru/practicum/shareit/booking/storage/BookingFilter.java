@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingFilter {
+    private Integer bookerId;
+    private Integer ownerId;
+    private String status;
+    private LocalDateTime startAfter;
+    private LocalDateTime startBefore;
+    private LocalDateTime endAfter;
+    private LocalDateTime endBefore;
+    private BookingCursor cursor;
+    private int limit;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingFilterRepository {
+
+    List<Booking> findFiltered(BookingFilter filter);
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingFilterRepositoryImpl implements BookingFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findFiltered(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Integer> id = booking.get("id");
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            predicates.add(cb.equal(item.get("owner"), filter.getOwnerId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(booking.get("status"), filter.getStatus()));
+        }
+        if (filter.getStartAfter() != null) {
+            predicates.add(cb.greaterThan(start, filter.getStartAfter()));
+        }
+        if (filter.getStartBefore() != null) {
+            predicates.add(cb.lessThan(start, filter.getStartBefore()));
+        }
+        if (filter.getEndAfter() != null) {
+            predicates.add(cb.greaterThan(end, filter.getEndAfter()));
+        }
+        if (filter.getEndBefore() != null) {
+            predicates.add(cb.lessThan(end, filter.getEndBefore()));
+        }
+        BookingCursor cursor = filter.getCursor();
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(filter.getLimit())
+                .getResultList();
+    }
+}
@@ -1,37 +1,75 @@
 package ru.practicum.shareit.booking.storage;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingsVersionDto;
+import ru.practicum.shareit.booking.dto.GetItemBookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-
-    List<Booking> findByBooker_idOrderByStartDesc(int bookerId);
-
-    List<Booking> findByBooker_idAndStatusOrderByStartDesc(int bookerId, String status);
-
-    List<Booking> findByBooker_idAndStartAfterOrderByStartDesc(int bookerId, LocalDateTime date);
-
-    List<Booking> findByBooker_idAndEndBeforeOrderByStartDesc(int bookerId, LocalDateTime date);
-
-    List<Booking> findByBooker_idAndStartBeforeAndEndAfterOrderByBooker_idDesc(int bookerId, LocalDateTime date1, LocalDateTime date2);
-
-    List<Booking> findByItem_idInOrderByStartDesc(Collection<Integer> itemsIds);
-
-    List<Booking> findByItem_idInAndStatusOrderByStartDesc(Collection<Integer> itemsIds, String status);
-
-    List<Booking> findByItem_idInAndStartAfterOrderByStartDesc(Collection<Integer> itemsIds, LocalDateTime date);
-
-    List<Booking> findByItem_idInAndEndBeforeOrderByStartDesc(Collection<Integer> itemsIds, LocalDateTime date);
-
-    List<Booking> findByItem_idInAndStartBeforeAndEndAfterOrderByStartDesc(Collection<Integer> itemsIds, LocalDateTime date1, LocalDateTime date2);
-
-    List<Booking> findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(int itemId, LocalDateTime date, String status);
-
-    List<Booking> findByItem_idAndStartBeforeOrderByStartDesc(int itemId, LocalDateTime date);
-
-    List<Booking> findByItem_idAndBooker_idAndEndBeforeAndStatusNot(int itemId, int userId, LocalDateTime date, String status);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingFilterRepository {
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(int id);
+
+    @Query("select new ru.practicum.shareit.booking.dto.GetItemBookingDto(b.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.start < :date " +
+            "order by b.start desc, b.id")
+    List<GetItemBookingDto> findLastBookings(@Param("itemId") int itemId,
+                                             @Param("date") LocalDateTime date,
+                                             Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.GetItemBookingDto(b.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.start > :date and b.status <> :status " +
+            "order by b.start asc, b.id")
+    List<GetItemBookingDto> findNextBookings(@Param("itemId") int itemId,
+                                             @Param("date") LocalDateTime date,
+                                             @Param("status") String status,
+                                             Pageable pageable);
+
+    boolean existsByItem_idAndStatusInAndStartBeforeAndEndAfter(int itemId, Collection<String> statuses,
+                                                                LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.owner = :ownerId " +
+            "and b.start = (select max(lb.start) from Booking lb where lb.item.id = b.item.id and lb.start < :date) " +
+            "order by b.id")
+    List<ItemBookingDto> findLastBookingsByItemOwner(@Param("ownerId") int ownerId, @Param("date") LocalDateTime date);
+
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id) " +
+            "from Booking b " +
+            "where b.item.owner = :ownerId and b.status <> :status " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.start > :date and nb.status <> :status) " +
+            "order by b.id")
+    List<ItemBookingDto> findNextBookingsByItemOwner(@Param("ownerId") int ownerId,
+                                                     @Param("date") LocalDateTime date,
+                                                     @Param("status") String status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingsVersionDto(count(b), max(b.id), " +
+            "sum(case when b.start < :date then 1 else 0 end), " +
+            "sum(case when b.status = :status then 1 else 0 end)) " +
+            "from Booking b " +
+            "where b.item.id = :itemId")
+    BookingsVersionDto findVersionByItem(@Param("itemId") int itemId,
+                                         @Param("date") LocalDateTime date,
+                                         @Param("status") String status);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.item.id, b.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.end > :date and b.status in :statuses")
+    List<BookingIntervalDto> findIntervalsEndingAfter(@Param("date") LocalDateTime date,
+                                                      @Param("statuses") Collection<String> statuses);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class Etags {
+
+    private Etags() {
+    }
+
+    public static String of(Object... parts) {
+        return "\"" + DigestUtils.md5DigestAsHex(Arrays.toString(parts).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class JournaledSnapshot<T> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private T state;
+    private List<Consumer<T>> pending;
+
+    public JournaledSnapshot(T initial) {
+        this.state = initial;
+    }
+
+    public synchronized void reload(Supplier<T> loader) {
+        setPending(new ArrayList<>());
+        T loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            setPending(null);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            state = loaded;
+            pending.forEach(change -> change.accept(loaded));
+        } finally {
+            pending = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void apply(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (pending != null) pending.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public <R> R read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setPending(List<Consumer<T>> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
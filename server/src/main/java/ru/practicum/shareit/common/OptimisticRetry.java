@@ -0,0 +1,29 @@
+package ru.practicum.shareit.common;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public <T> T execute(Class<?> entityClass, Object id, Supplier<T> action) {
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Версия {} с id = {} устарела, повтор с чтением из базы", entityClass.getSimpleName(), id);
+            entityManagerFactory.getCache().evict(entityClass, id);
+            return transactionTemplate.execute(status -> action.get());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.common;
+
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.exception.spi.TemplatedViolatedConstraintNameExtracter;
+import org.hibernate.exception.spi.ViolatedConstraintNameExtracter;
+import org.hibernate.internal.util.JdbcExceptionHelper;
+
+import java.sql.SQLException;
+
+public class ShareItPostgreSQLDialect extends PostgreSQL10Dialect {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final ViolatedConstraintNameExtracter standard = super.getViolatedConstraintNameExtracter();
+    private final ViolatedConstraintNameExtracter extracter = new TemplatedViolatedConstraintNameExtracter() {
+        @Override
+        protected String doExtractConstraintName(SQLException sqle) {
+            if (EXCLUSION_VIOLATION.equals(JdbcExceptionHelper.extractSqlState(sqle))) {
+                return extractUsingTemplate("violates exclusion constraint \"", "\"", sqle.getMessage());
+            }
+            return standard.extractConstraintName(sqle);
+        }
+    };
+
+    @Override
+    public ViolatedConstraintNameExtracter getViolatedConstraintNameExtracter() {
+        return extracter;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.common;
+
+import lombok.Getter;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+@Getter
+@MappedSuperclass
+public abstract class VersionedEntity {
+    @Version
+    private long version;
+}
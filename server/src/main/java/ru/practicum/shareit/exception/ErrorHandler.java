@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -121,4 +122,18 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка. Request не найден", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(final BookingOverlapException e) {
+        log.warn("Ошибка. Item уже забронирован на это время.", e);
+        return new ErrorResponse("Ошибка. Item уже забронирован на это время.", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        log.warn("Ошибка. Объект был изменён другим запросом.", e);
+        return new ErrorResponse("Ошибка. Объект был изменён другим запросом.", e.getMessage());
+    }
+
 }
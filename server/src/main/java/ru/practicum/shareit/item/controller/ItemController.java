@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,11 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final String DEFAULT_LIMIT = "100";
+    private static final String DEFAULT_SUGGEST_LIMIT = "10";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
     private final ItemService itemService;
 
     @PostMapping()
@@ -33,7 +45,10 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItem(@PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId) {
+    public ItemDto getItem(@PathVariable int itemId, @RequestHeader("X-Sharer-User-Id") int userId,
+                           WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, USER_HEADER);
+        if (request.checkNotModified(itemService.getItemEtag(itemId, userId))) return null;
         return itemService.getItem(itemId, userId);
     }
 
@@ -43,7 +58,30 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchByText(@RequestParam String text) {
-        return itemService.searchByText(text);
+    public ResponseEntity<List<ItemDto>> searchByText(@RequestParam String text,
+                                                      @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        List<ItemDto> items = itemService.searchByText(text, fuzzy, cursor, limit);
+        if (items.size() < limit) {
+            return ResponseEntity.ok(items);
+        }
+        String nextCursor = itemService.nextSearchCursor(items.get(items.size() - 1), text);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(items);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = DEFAULT_SUGGEST_LIMIT) int limit) {
+        return itemService.suggest(prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable int itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 }
@@ -11,4 +11,12 @@ public class CommentMapper {
                 comment.getAuthor().getName(),
                 comment.getCreated());
     }
+
+    public static CommentDto toCommentDto(ItemCommentDto itemCommentDto) {
+        return new CommentDto(
+                itemCommentDto.getId(),
+                itemCommentDto.getText(),
+                itemCommentDto.getAuthorName(),
+                itemCommentDto.getCreated());
+    }
 }
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@Data
+@AllArgsConstructor
+public class ItemSearchCursor {
+
+    public static final int EXACT_NAME = 0;
+    public static final int NAME_PREFIX = 1;
+    public static final int NAME_CONTAINS = 2;
+    public static final int DESCRIPTION_CONTAINS = 3;
+    public static final int FUZZY = 4;
+
+    private static final String SEPARATOR = "|";
+    private static final ItemSearchCursor FIRST_PAGE = new ItemSearchCursor(-1, 0);
+
+    private int rank;
+    private double score;
+    private int id;
+
+    public ItemSearchCursor(int rank, int id) {
+        this(rank, 0, id);
+    }
+
+    public static ItemSearchCursor of(ItemDto item, String text) {
+        return new ItemSearchCursor(rankOf(item.getName(), item.getDescription(), text), item.getId());
+    }
+
+    public static int rankOf(String name, String description, String text) {
+        String normalizedName = name.toLowerCase(Locale.ROOT);
+        String query = text.toLowerCase(Locale.ROOT);
+        if (normalizedName.equals(query)) return EXACT_NAME;
+        if (normalizedName.startsWith(query)) return NAME_PREFIX;
+        if (normalizedName.contains(query)) return NAME_CONTAINS;
+        if (description != null && description.toLowerCase(Locale.ROOT).contains(query)) return DESCRIPTION_CONTAINS;
+        return FUZZY;
+    }
+
+    public static ItemSearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return FIRST_PAGE;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(Pattern.quote(SEPARATOR), -1);
+            if (parts.length == 2) {
+                return new ItemSearchCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+            }
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(String.format("Некорректный курсор: %s", cursor));
+            }
+            return new ItemSearchCursor(Integer.parseInt(parts[0]), Double.parseDouble(parts[2]),
+                    Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Некорректный курсор: %s", cursor), e);
+        }
+    }
+
+    public boolean isBefore(int rank, int id) {
+        return this.rank < rank || (this.rank == rank && this.id < id);
+    }
+
+    public String encode() {
+        String value = score == 0 ? rank + SEPARATOR + id : rank + SEPARATOR + id + SEPARATOR + score;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemWithRenterDto extends ItemWithUserDto {
+
+    boolean isRentedByUser();
+}
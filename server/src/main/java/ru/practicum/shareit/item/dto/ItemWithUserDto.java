@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+public interface ItemWithUserDto {
+
+    Item getItem();
+
+    User getUser();
+}
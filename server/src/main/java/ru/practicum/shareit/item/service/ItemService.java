@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,9 +17,17 @@ public interface ItemService {
 
     ItemDto getItem(int itemId, int userId);
 
+    String getItemEtag(int itemId, int userId);
+
     List<ItemDto> getItems(int userId);
 
-    List<ItemDto> searchByText(String text);
+    List<ItemDto> searchByText(String text, boolean fuzzy, String cursor, int limit);
+
+    String nextSearchCursor(ItemDto last, String text);
+
+    List<String> suggest(String prefix, int limit);
 
     CommentDto addComment(int itemId, int userId, CommentCreateDto commentCreateDto);
+
+    List<FreeSlotDto> getAvailability(int itemId, LocalDateTime from, LocalDateTime to);
 }
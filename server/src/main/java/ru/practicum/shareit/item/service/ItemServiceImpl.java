@@ -2,12 +2,21 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingsVersionDto;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingStatus;
 import ru.practicum.shareit.booking.dto.GetItemBookingDto;
+import ru.practicum.shareit.common.Etags;
+import ru.practicum.shareit.common.OptimisticRetry;
+import ru.practicum.shareit.common.TransactionHooks;
 import ru.practicum.shareit.exception.IncorrectItemOwnerIdException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemNotRentedByUserException;
@@ -16,51 +25,72 @@ import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
 import ru.practicum.shareit.item.storage.ItemRepository;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearcher;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemSearcher itemSearcher;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemSearchCache itemSearchCache;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
+    @Transactional
     public ItemDto addItem(ItemDto itemDto, int userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userExistenceCache.existsInDatabase(userId)) {
             log.warn("Пользователя с id = {} не существует", userId);
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
-        Item item = itemRepository.save(new Item(null,
+        Item item = itemRepository.saveAndFlush(new Item(null,
                 itemDto.getName(),
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 userId,
                 itemDto.getRequestId()));
+        TransactionHooks.afterCommit(() -> {
+            itemSearcher.add(item);
+            itemNameTrie.add(item);
+        });
+        itemSearchCache.invalidate(null, item);
         return ItemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ItemDto updateItem(ItemUpdateDto itemUpdateDto, int userId, int itemId) {
+        return optimisticRetry.execute(Item.class, itemId, () -> applyUpdate(itemUpdateDto, userId, itemId));
+    }
+
+    private ItemDto applyUpdate(ItemUpdateDto itemUpdateDto, int userId, int itemId) {
         Optional<Item> itemOptional = itemRepository.findById(itemId);
         if (itemOptional.isEmpty()) {
             log.warn("Item'a с id = {} не существует", itemId);
             throw new ItemNotFoundException(String.format("Item'a с id = %s не существует", itemId));
         }
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userExistenceCache.existsInDatabase(userId)) {
             log.warn("Пользователя с id = {} не существует", userId);
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
@@ -70,13 +100,21 @@ public class ItemServiceImpl implements ItemService {
             throw new IncorrectItemOwnerIdException(String.format("Пользователь с id = %s не является " +
                     "владельцем item'а c id = %s. Только владелец может редактировать item.", userId, itemId));
         }
+        Item before = new Item(item.getId(), item.getName(), item.getDescription(), item.isAvailable(),
+                item.getOwner(), item.getRequest());
         String name = itemUpdateDto.getName();
         String description = itemUpdateDto.getDescription();
         Boolean available = itemUpdateDto.getAvailable();
         if (name != null) item.setName(name);
         if (description != null) item.setDescription(description);
         if (available != null) item.setAvailable(available);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item updated = itemRepository.save(item);
+        TransactionHooks.afterCommit(() -> {
+            itemSearcher.add(updated);
+            itemNameTrie.add(updated);
+        });
+        itemSearchCache.invalidate(before, updated);
+        return ItemMapper.toItemDto(updated);
     }
 
     @Override
@@ -99,71 +137,136 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    @Override
+    public String getItemEtag(int itemId, int userId) {
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isEmpty()) return null;
+        VersionDto comments = commentRepository.findVersionByItem(itemId);
+        if (!item.get().getOwner().equals(userId)) {
+            return Etags.of("item", itemId, item.get().getVersion(), comments);
+        }
+        BookingsVersionDto bookings = bookingRepository.findVersionByItem(itemId, LocalDateTime.now(),
+                BookingStatus.REJECTED.name());
+        return Etags.of("item", itemId, item.get().getVersion(), comments, bookings);
+    }
+
     @Override
     public List<ItemDto> getItems(int userId) {
         List<ItemDto> items = itemRepository.findAllByOwnerOrderByIdAsc(userId).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
+        if (items.isEmpty()) {
+            if (!userExistenceCache.existsInDatabase(userId)) {
+                log.warn("Пользователя с id = {} не существует", userId);
+                throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
+            }
+            return items;
+        }
         LocalDateTime currentDate = LocalDateTime.now();
+        Map<Integer, GetItemBookingDto> lastBookings = toBookingsByItemId(
+                bookingRepository.findLastBookingsByItemOwner(userId, currentDate));
+        Map<Integer, GetItemBookingDto> nextBookings = toBookingsByItemId(
+                bookingRepository.findNextBookingsByItemOwner(userId, currentDate, BookingStatus.REJECTED.name()));
+        Map<Integer, List<CommentDto>> comments = commentRepository.findAllByItemOwner(userId).stream()
+                .collect(Collectors.groupingBy(ItemCommentDto::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
         for (ItemDto itemDto : items) {
-            GetItemBookingDto lastBooking = getLastBooking(itemDto.getId(), currentDate);
-            GetItemBookingDto nextBooking = getNextBooking(itemDto.getId(), currentDate);
-            itemDto.setNextBooking(nextBooking);
-            itemDto.setLastBooking(lastBooking);
-            itemDto.setComments(commentRepository.findByItem_idOrderByCreatedDesc(itemDto.getId()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
         }
         return items;
     }
 
     @Override
-    public List<ItemDto> searchByText(String text) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ItemDto> searchByText(String text, boolean fuzzy, String cursor, int limit) {
+        ItemSearchCursor after = ItemSearchCursor.decode(cursor);
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException(String.format("Размер страницы должен быть от 1 до %s", MAX_SEARCH_LIMIT));
+        }
         if (text.isBlank()) return new ArrayList<>();
-        List<ItemDto> items = itemRepository.findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableTrue(text,
-                text).stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        List<ItemDto> items = itemSearchCache.get(text, fuzzy, after, limit, () ->
+                itemSearcher.search(text, fuzzy, after, limit).stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()));
         log.info("По запросу: \"{}\" найдено item'ов: {}", text, items.size());
         return items;
     }
 
     @Override
-    public CommentDto addComment(int itemId, int userId, CommentCreateDto commentCreateDto) {
-        Optional<Item> itemOptional = itemRepository.findById(itemId);
-        if (itemOptional.isEmpty()) {
-            log.warn("Item'a с id = {} не существует", itemId);
-            throw new ItemNotFoundException(String.format("Item'a с id = %s не существует", itemId));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String nextSearchCursor(ItemDto last, String text) {
+        return itemSearcher.cursorAfter(last, text).encode();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > ItemNameTrie.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException(String.format("Количество подсказок должно быть от 1 до %s",
+                    ItemNameTrie.MAX_SUGGESTIONS));
         }
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (prefix.isBlank()) return new ArrayList<>();
+        return itemNameTrie.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional
+    public CommentDto addComment(int itemId, int userId, CommentCreateDto commentCreateDto) {
+        Optional<ItemWithRenterDto> found = itemRepository.findWithRenter(itemId, userId, LocalDateTime.now(),
+                BookingStatus.REJECTED.name());
+        if (found.isEmpty()) {
+            if (!itemRepository.existsById(itemId)) {
+                log.warn("Item'a с id = {} не существует", itemId);
+                throw new ItemNotFoundException(String.format("Item'a с id = %s не существует", itemId));
+            }
             log.warn("Пользователя с id = {} не существует", userId);
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
-        Item item = itemOptional.get();
-        User user = userOptional.get();
-        String text = commentCreateDto.getText();
-        if (!isRentedByUser(itemId, userId)) {
+        if (!found.get().isRentedByUser()) {
             throw new ItemNotRentedByUserException(String.format("Пользователь с id = %s не брал в аренду Item c id = %s. " +
                     "Отзыв может оставить только тот пользователь, который брал вещь в аренду.", userId, itemId));
         }
-        Comment comment = new Comment(null, text, item, user, LocalDateTime.now());
+        Comment comment = new Comment(null, commentCreateDto.getText(), found.get().getItem(), found.get().getUser(),
+                LocalDateTime.now());
         return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
 
+    @Override
+    public List<FreeSlotDto> getAvailability(int itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("Item'a с id = {} не существует", itemId);
+            throw new ItemNotFoundException(String.format("Item'a с id = %s не существует", itemId));
+        }
+        LocalDateTime currentDate = LocalDateTime.now();
+        if (!to.isAfter(currentDate)) return new ArrayList<>();
+        if (from.isBefore(currentDate)) from = currentDate;
+        return availabilityIndex.findFreeSlots(itemId, from, to);
+    }
+
     private GetItemBookingDto getLastBooking(int itemId, LocalDateTime currentDate) {
-        List<Booking> endedBookings = bookingRepository.findByItem_idAndStartBeforeOrderByStartDesc(itemId, currentDate);
+        List<GetItemBookingDto> endedBookings = bookingRepository.findLastBookings(itemId, currentDate,
+                PageRequest.of(0, 1));
         if (endedBookings.isEmpty()) return null;
-        return BookingMapper.toGetItemBookingDto(endedBookings.get(0));
+        return endedBookings.get(0);
     }
 
     private GetItemBookingDto getNextBooking(int itemId, LocalDateTime currentDate) {
-        List<Booking> futureBookings = bookingRepository.findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(itemId, currentDate, BookingStatus.REJECTED.name());
+        List<GetItemBookingDto> futureBookings = bookingRepository.findNextBookings(itemId, currentDate,
+                BookingStatus.REJECTED.name(), PageRequest.of(0, 1));
         if (futureBookings.isEmpty()) return null;
-        return BookingMapper.toGetItemBookingDto(futureBookings.get(0));
+        return futureBookings.get(0);
     }
 
-    private boolean isRentedByUser(int itemId, int userId) {
-        List<Booking> bookings = bookingRepository.findByItem_idAndBooker_idAndEndBeforeAndStatusNot(itemId,
-                userId,
-                LocalDateTime.now(),
-                BookingStatus.REJECTED.name());
-        return !bookings.isEmpty();
+    private Map<Integer, GetItemBookingDto> toBookingsByItemId(List<ItemBookingDto> bookings) {
+        Map<Integer, GetItemBookingDto> bookingsByItemId = new HashMap<>();
+        for (ItemBookingDto booking : bookings) {
+            bookingsByItemId.putIfAbsent(booking.getItemId(), BookingMapper.toGetItemBookingDto(booking));
+        }
+        return bookingsByItemId;
     }
 }
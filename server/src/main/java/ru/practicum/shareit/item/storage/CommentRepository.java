@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.VersionDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -9,4 +13,15 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
     List<CommentDto> findByItem_idOrderByCreatedDesc(int itemId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemCommentDto(c.item.id, c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.item.owner = :ownerId " +
+            "order by c.created desc")
+    List<ItemCommentDto> findAllByItemOwner(@Param("ownerId") int ownerId);
+
+    @Query("select new ru.practicum.shareit.item.dto.VersionDto(count(c), max(c.id), sum(a.version)) " +
+            "from Comment c join c.author a " +
+            "where c.item.id = :itemId")
+    VersionDto findVersionByItem(@Param("itemId") int itemId);
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "database")
+public class DatabaseItemSearcher implements ItemSearcher {
+
+    private static final char ESCAPE = '!';
+
+    private final ItemRepository itemRepository;
+    private final boolean postgres;
+
+    public DatabaseItemSearcher(ItemRepository itemRepository, @Value("${spring.datasource.url}") String url) {
+        this.itemRepository = itemRepository;
+        this.postgres = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL;
+    }
+
+    @Override
+    public List<Item> search(String text, boolean fuzzy, ItemSearchCursor after, int limit) {
+        String escaped = escape(text);
+        if (!postgres) {
+            if (fuzzy) {
+                throw new IllegalArgumentException("Нечёткий поиск в режиме database поддерживается только в PostgreSQL");
+            }
+            return itemRepository.search(text, escaped + "%", "%" + escaped + "%", after.getRank(), after.getId(), limit);
+        }
+        if (fuzzy) {
+            return itemRepository.fuzzySearch(text, escaped + "%", "%" + escaped + "%", after.getRank(),
+                    after.getScore(), after.getId(), limit);
+        }
+        return itemRepository.scoredSearch(text, escaped + "%", "%" + escaped + "%", after.getRank(),
+                after.getScore(), after.getId(), limit);
+    }
+
+    @Override
+    public ItemSearchCursor cursorAfter(ItemDto item, String text) {
+        ItemSearchCursor cursor = ItemSearchCursor.of(item, text);
+        if (!postgres) return cursor;
+        return new ItemSearchCursor(cursor.getRank(), itemRepository.nameSimilarity(text, item.getName()), cursor.getId());
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') escaped.append(ESCAPE);
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
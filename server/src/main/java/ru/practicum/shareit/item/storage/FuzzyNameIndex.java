@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+class FuzzyNameIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char WORD_START = '\u0002';
+    private static final char WORD_END = '\u0003';
+
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final Map<Integer, String> words = new HashMap<>();
+    private final Map<Integer, IntPostingList> wordItems = new HashMap<>();
+    private final Map<Integer, IntPostingList> bigramWords = new HashMap<>();
+    private int nextWordId;
+
+    void add(int itemId, String name) {
+        for (String word : words(name)) {
+            Integer wordId = wordIds.get(word);
+            if (wordId == null) {
+                wordId = nextWordId++;
+                wordIds.put(word, wordId);
+                words.put(wordId, word);
+                for (int bigram : bigrams(word)) {
+                    bigramWords.computeIfAbsent(bigram, key -> new IntPostingList()).add(wordId);
+                }
+            }
+            wordItems.computeIfAbsent(wordId, key -> new IntPostingList()).add(itemId);
+        }
+    }
+
+    void remove(int itemId, String name) {
+        for (String word : words(name)) {
+            Integer wordId = wordIds.get(word);
+            if (wordId == null) continue;
+            IntPostingList items = wordItems.get(wordId);
+            items.remove(itemId);
+            if (!items.isEmpty()) continue;
+            wordItems.remove(wordId);
+            wordIds.remove(word);
+            words.remove(wordId);
+            for (int bigram : bigrams(word)) {
+                IntPostingList list = bigramWords.get(bigram);
+                list.remove(wordId);
+                if (list.isEmpty()) bigramWords.remove(bigram);
+            }
+        }
+    }
+
+    Set<Integer> search(String query) {
+        Set<Integer> found = null;
+        for (String token : words(query)) {
+            Set<Integer> tokenItems = new HashSet<>();
+            for (int wordId : similarWords(token)) {
+                IntPostingList items = wordItems.get(wordId);
+                for (int i = 0; i < items.size(); i++) {
+                    int itemId = items.get(i);
+                    if (found == null || found.contains(itemId)) tokenItems.add(itemId);
+                }
+            }
+            found = tokenItems;
+            if (found.isEmpty()) break;
+        }
+        return found == null ? Set.of() : found;
+    }
+
+    static boolean matches(String query, String name) {
+        Set<String> tokens = words(query);
+        if (tokens.isEmpty()) return false;
+        Set<String> nameWords = words(name);
+        for (String token : tokens) {
+            int max = maxDistance(token.length());
+            if (nameWords.stream().noneMatch(word -> distance(token, word, max) <= max)) return false;
+        }
+        return true;
+    }
+
+    static int maxDistance(int length) {
+        if (length <= 2) return 0;
+        if (length <= 5) return 1;
+        return 2;
+    }
+
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private Set<Integer> similarWords(String token) {
+        int max = maxDistance(token.length());
+        if (max == 0) {
+            Integer wordId = wordIds.get(token);
+            return wordId == null ? Set.of() : Set.of(wordId);
+        }
+        int[] tokenBigrams = bigrams(token);
+        int minCommon = tokenBigrams.length - 2 * max;
+        Set<Integer> similar = new HashSet<>();
+        if (minCommon <= 0) {
+            for (Map.Entry<Integer, String> word : words.entrySet()) {
+                if (distance(token, word.getValue(), max) <= max) similar.add(word.getKey());
+            }
+            return similar;
+        }
+        Map<Integer, Integer> common = new HashMap<>();
+        for (int bigram : tokenBigrams) {
+            IntPostingList list = bigramWords.get(bigram);
+            if (list == null) continue;
+            for (int i = 0; i < list.size(); i++) {
+                common.merge(list.get(i), 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : common.entrySet()) {
+            if (candidate.getValue() < minCommon) continue;
+            String word = words.get(candidate.getKey());
+            if (distance(token, word, max) <= max) similar.add(candidate.getKey());
+        }
+        return similar;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(text)) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static int[] bigrams(String word) {
+        String padded = WORD_START + word + WORD_END;
+        int[] bigrams = new int[padded.length() - 1];
+        for (int i = 0; i < bigrams.length; i++) {
+            bigrams[i] = (padded.charAt(i) << 16) | padded.charAt(i + 1);
+        }
+        return Arrays.stream(bigrams).distinct().toArray();
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.JournaledSnapshot;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemNameTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final Comparator<Node> POPULARITY = Comparator.<Node>comparingInt(node -> -node.count)
+            .thenComparing(node -> node.key);
+
+    private final ItemRepository itemRepository;
+    private final JournaledSnapshot<Trie> trie = new JournaledSnapshot<>(new Trie());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        trie.reload(() -> {
+            Trie loaded = new Trie();
+            for (Item item : itemRepository.findAll()) {
+                loaded.put(item);
+            }
+            log.info("Дерево подсказок построено, названий: {}", loaded.root.size());
+            return loaded;
+        });
+    }
+
+    public void add(Item item) {
+        Item copy = new Item(item.getId(), item.getName(), item.getDescription(), item.isAvailable(),
+                item.getOwner(), item.getRequest());
+        trie.apply(current -> current.put(copy));
+    }
+
+    public void removeOwner(int ownerId) {
+        trie.apply(current -> {
+            Iterator<NamedItem> iterator = current.items.values().iterator();
+            while (iterator.hasNext()) {
+                NamedItem named = iterator.next();
+                if (named.owner == ownerId) {
+                    iterator.remove();
+                    remove(current.root, named.key);
+                }
+            }
+        });
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        return trie.read(current -> {
+            Node node = find(current.root, key);
+            if (node == null) return new ArrayList<>();
+            return node.top.stream()
+                    .limit(limit)
+                    .map(top -> top.name)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private static Node find(Node node, String rest) {
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) return null;
+            if (child.label.startsWith(rest)) return child;
+            if (!rest.startsWith(child.label)) return null;
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        return node;
+    }
+
+    private static void insert(Node node, String rest, String key, String name) {
+        if (rest.isEmpty()) {
+            if (node.count++ == 0) node.name = name;
+        } else {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest, key);
+                child.count = 1;
+                child.name = name;
+                child.refresh();
+                node.children.put(rest.charAt(0), child);
+            } else {
+                int common = commonPrefix(child.label, rest);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                insert(child, rest.substring(common), key, name);
+            }
+        }
+        node.refresh();
+    }
+
+    private static void remove(Node node, String rest) {
+        if (rest.isEmpty()) {
+            node.count--;
+        } else {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) return;
+            remove(child, rest.substring(child.label.length()));
+            if (child.count == 0 && child.children.isEmpty()) {
+                node.children.remove(rest.charAt(0));
+            } else if (child.count == 0 && child.children.size() == 1) {
+                Node grandchild = child.children.values().iterator().next();
+                grandchild.label = child.label + grandchild.label;
+                node.children.put(rest.charAt(0), grandchild);
+            }
+        }
+        node.refresh();
+    }
+
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at), child.key.substring(0,
+                child.key.length() - child.label.length() + at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        middle.refresh();
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Trie {
+        private final Map<Integer, NamedItem> items = new HashMap<>();
+        private final Node root = new Node("", "");
+
+        private void put(Item item) {
+            NamedItem previous = items.remove(item.getId());
+            if (previous != null) remove(root, previous.key);
+            if (!item.isAvailable() || item.getName() == null || item.getName().isBlank()) return;
+            NamedItem named = new NamedItem(item.getOwner(), normalize(item.getName()));
+            items.put(item.getId(), named);
+            insert(root, named.key, named.key, item.getName().strip());
+        }
+    }
+
+    private static class Node {
+        private String label;
+        private final String key;
+        private final Map<Character, Node> children = new HashMap<>();
+        private int count;
+        private String name;
+        private List<Node> top = List.of();
+
+        private Node(String label, String key) {
+            this.label = label;
+            this.key = key;
+        }
+
+        private void refresh() {
+            List<Node> candidates = new ArrayList<>();
+            if (count > 0) candidates.add(this);
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(POPULARITY);
+            top = candidates.size() > MAX_SUGGESTIONS
+                    ? List.copyOf(candidates.subList(0, MAX_SUGGESTIONS))
+                    : List.copyOf(candidates);
+        }
+
+        private int size() {
+            int size = count > 0 ? 1 : 0;
+            for (Node child : children.values()) {
+                size += child.size();
+            }
+            return size;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class NamedItem {
+        private final int owner;
+        private final String key;
+    }
+}
@@ -1,13 +1,93 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemWithRenterDto;
+import ru.practicum.shareit.item.dto.ItemWithUserDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
-    List<Item> findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableTrue(String text1, String text2);
+    String SEARCH_COLUMNS = "select s.id, s.name, s.description, s.is_available, s.owner_id, s.request_id, s.version from (" +
+            "select i.*, case " +
+            "when upper(i.name) = upper(:text) then 0 " +
+            "when upper(i.name) like upper(:prefix) escape '!' then 1 " +
+            "when upper(i.name) like upper(:pattern) escape '!' then 2 " +
+            "when upper(i.description) like upper(:pattern) escape '!' then 3 " +
+            "else 4 end as search_rank";
+    String SEARCH_WHERE = " from items i " +
+            "where i.is_available = true " +
+            "and (upper(i.name) like upper(:pattern) escape '!' or upper(i.description) like upper(:pattern) escape '!'";
+    String SEARCH_SELECT = SEARCH_COLUMNS + SEARCH_WHERE;
+    String SEARCH_PAGE = ") s " +
+            "where s.search_rank > :cursorRank or (s.search_rank = :cursorRank and s.id > :cursorId) " +
+            "order by s.search_rank, s.id " +
+            "limit :limit";
+    String SCORED_SELECT = SEARCH_COLUMNS + ", cast(word_similarity(upper(:text), upper(i.name)) as double precision) " +
+            "as search_score" + SEARCH_WHERE;
+    String SCORED_PAGE = ") s " +
+            "where s.search_rank > :cursorRank or (s.search_rank = :cursorRank and (s.search_score < :cursorScore " +
+            "or (s.search_score = :cursorScore and s.id > :cursorId))) " +
+            "order by s.search_rank, s.search_score desc, s.id " +
+            "limit :limit";
 
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Item> findAllByOwnerOrderByIdAsc(int ownerId);
+
+    @Query("select i as item, u as user " +
+            "from Item i, User u " +
+            "where i.id = :itemId and u.id = :userId")
+    Optional<ItemWithUserDto> findWithUser(@Param("itemId") Integer itemId, @Param("userId") int userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") int itemId);
+
+    @Query("select i as item, u as user, " +
+            "case when exists (select b.id from Booking b where b.item.id = i.id and b.booker.id = u.id " +
+            "and b.end < :date and b.status <> :status) then true else false end as rentedByUser " +
+            "from Item i, User u " +
+            "where i.id = :itemId and u.id = :userId")
+    Optional<ItemWithRenterDto> findWithRenter(@Param("itemId") int itemId,
+                                               @Param("userId") int userId,
+                                               @Param("date") LocalDateTime date,
+                                               @Param("status") String status);
+
+    @Query(value = SEARCH_SELECT + ")" + SEARCH_PAGE, nativeQuery = true)
+    List<Item> search(@Param("text") String text,
+                      @Param("prefix") String prefix,
+                      @Param("pattern") String pattern,
+                      @Param("cursorRank") int cursorRank,
+                      @Param("cursorId") int cursorId,
+                      @Param("limit") int limit);
+
+    @Query(value = SCORED_SELECT + ")" + SCORED_PAGE, nativeQuery = true)
+    List<Item> scoredSearch(@Param("text") String text,
+                            @Param("prefix") String prefix,
+                            @Param("pattern") String pattern,
+                            @Param("cursorRank") int cursorRank,
+                            @Param("cursorScore") double cursorScore,
+                            @Param("cursorId") int cursorId,
+                            @Param("limit") int limit);
+
+    @Query(value = SCORED_SELECT + " or upper(:text) <% upper(i.name))" + SCORED_PAGE, nativeQuery = true)
+    List<Item> fuzzySearch(@Param("text") String text,
+                           @Param("prefix") String prefix,
+                           @Param("pattern") String pattern,
+                           @Param("cursorRank") int cursorRank,
+                           @Param("cursorScore") double cursorScore,
+                           @Param("cursorId") int cursorId,
+                           @Param("limit") int limit);
+
+    @Query(value = "select cast(word_similarity(upper(:text), upper(:name)) as double precision)", nativeQuery = true)
+    double nameSimilarity(@Param("text") String text, @Param("name") String name);
 }
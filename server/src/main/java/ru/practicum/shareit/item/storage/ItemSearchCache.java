@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+
+    private final Cache<SearchKey, List<ItemDto>> cache;
+    private final ItemSearcher itemSearcher;
+    private final Object writeLock = new Object();
+    private long generation;
+
+    public ItemSearchCache(ItemSearcher itemSearcher,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl) {
+        this.itemSearcher = itemSearcher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    public List<ItemDto> get(String text, boolean fuzzy, ItemSearchCursor after, int limit,
+                             Supplier<List<ItemDto>> loader) {
+        SearchKey key = new SearchKey(text.toLowerCase(Locale.ROOT), fuzzy, after, limit);
+        List<ItemDto> cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+        long seen;
+        synchronized (writeLock) {
+            seen = generation;
+        }
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (writeLock) {
+            if (generation == seen) cache.put(key, items);
+        }
+        return items;
+    }
+
+    public void invalidate(Item before, Item after) {
+        evict(() -> cache.asMap().keySet().removeIf(key -> affects(before, key) || affects(after, key)));
+    }
+
+    public void invalidateAll() {
+        evict(cache::invalidateAll);
+    }
+
+    private void evict(Runnable eviction) {
+        Runnable evict = () -> {
+            synchronized (writeLock) {
+                generation++;
+                eviction.run();
+            }
+        };
+        TransactionHooks.nowAndAfterCommit(evict);
+    }
+
+    private boolean affects(Item item, SearchKey key) {
+        return item != null && item.isAvailable() && itemSearcher.matches(item, key.query, key.fuzzy);
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class SearchKey {
+        private final String query;
+        private final boolean fuzzy;
+        private final ItemSearchCursor after;
+        private final int limit;
+    }
+}
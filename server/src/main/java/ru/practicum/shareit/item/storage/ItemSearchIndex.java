@@ -0,0 +1,216 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.JournaledSnapshot;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearcher {
+
+    private static final int GRAM = 3;
+    private static final Comparator<RankedItem> RANKING = Comparator.<RankedItem>comparingInt(ranked -> ranked.rank)
+            .thenComparing(ranked -> ranked.item.getId());
+
+    private final ItemRepository itemRepository;
+    private final JournaledSnapshot<Index> index = new JournaledSnapshot<>(new Index());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.reload(() -> {
+            Index loaded = new Index();
+            for (Item item : itemRepository.findAll()) {
+                loaded.put(item);
+            }
+            log.info("Поисковый индекс item'ов построен, item'ов: {}", loaded.items.size());
+            return loaded;
+        });
+    }
+
+    @Override
+    public void add(Item item) {
+        Item copy = copyOf(item);
+        index.apply(current -> current.put(copy));
+    }
+
+    @Override
+    public void removeOwner(int ownerId) {
+        index.apply(current -> {
+            Iterator<IndexedItem> iterator = current.items.values().iterator();
+            while (iterator.hasNext()) {
+                IndexedItem indexed = iterator.next();
+                if (indexed.item.getOwner() == ownerId) {
+                    iterator.remove();
+                    current.unindex(indexed);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void detachRequests(Collection<Integer> requestIds) {
+        if (requestIds.isEmpty()) return;
+        Set<Integer> ids = new HashSet<>(requestIds);
+        index.apply(current -> {
+            for (IndexedItem indexed : current.items.values()) {
+                if (indexed.item.getRequest() != null && ids.contains(indexed.item.getRequest())) {
+                    indexed.item = copyOf(indexed.item);
+                    indexed.item.setRequest(null);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text, boolean fuzzy, ItemSearchCursor after, int limit) {
+        String query = normalize(text);
+        List<RankedItem> found = index.read(current -> {
+            List<RankedItem> collected = new ArrayList<>();
+            for (IndexedItem indexed : current.candidates(query)) {
+                if (indexed.matches(query)) collect(indexed, query, after, collected);
+            }
+            if (fuzzy) {
+                for (int id : current.fuzzyIndex.search(query)) {
+                    IndexedItem indexed = current.items.get(id);
+                    if (!indexed.matches(query)) collect(indexed, query, after, collected);
+                }
+            }
+            return collected;
+        });
+        return found.stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(ranked -> ranked.item)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean matches(Item item, String text, boolean fuzzy) {
+        String query = normalize(text);
+        IndexedItem indexed = new IndexedItem(item);
+        return indexed.matches(query) || fuzzy && FuzzyNameIndex.matches(query, indexed.name);
+    }
+
+    private void collect(IndexedItem indexed, String query, ItemSearchCursor after, List<RankedItem> found) {
+        if (!indexed.item.isAvailable()) return;
+        int rank = ItemSearchCursor.rankOf(indexed.name, indexed.description, query);
+        if (after.isBefore(rank, indexed.item.getId())) {
+            found.add(new RankedItem(rank, indexed.item));
+        }
+    }
+
+    private static Item copyOf(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.isAvailable(), item.getOwner(),
+                item.getRequest());
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static class Index {
+        private final Map<Integer, IndexedItem> items = new HashMap<>();
+        private final Map<Long, IntPostingList> postings = new HashMap<>();
+        private final FuzzyNameIndex fuzzyIndex = new FuzzyNameIndex();
+
+        private Collection<IndexedItem> candidates(String query) {
+            if (query.length() < GRAM) return items.values();
+            List<IntPostingList> lists = new ArrayList<>();
+            for (long gram : grams(query)) {
+                IntPostingList list = postings.get(gram);
+                if (list == null) return List.of();
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(IntPostingList::size));
+            IntPostingList smallest = lists.get(0);
+            List<IndexedItem> candidates = new ArrayList<>();
+            for (int i = 0; i < smallest.size(); i++) {
+                int id = smallest.get(i);
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                if (inAll) candidates.add(items.get(id));
+            }
+            return candidates;
+        }
+
+        private void put(Item item) {
+            IndexedItem indexed = new IndexedItem(copyOf(item));
+            IndexedItem previous = items.put(item.getId(), indexed);
+            if (previous != null) unindex(previous);
+            for (long gram : indexed.allGrams()) {
+                postings.computeIfAbsent(gram, key -> new IntPostingList()).add(item.getId());
+            }
+            fuzzyIndex.add(item.getId(), indexed.name);
+        }
+
+        private void unindex(IndexedItem indexed) {
+            int id = indexed.item.getId();
+            for (long gram : indexed.allGrams()) {
+                IntPostingList list = postings.get(gram);
+                if (list == null) continue;
+                list.remove(id);
+                if (list.isEmpty()) postings.remove(gram);
+            }
+            fuzzyIndex.remove(id, indexed.name);
+        }
+    }
+
+    private static class IndexedItem {
+        private Item item;
+        private final String name;
+        private final String description;
+
+        private IndexedItem(Item item) {
+            this.item = item;
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+        }
+
+        private Set<Long> allGrams() {
+            Set<Long> grams = grams(name);
+            grams.addAll(grams(description));
+            return grams;
+        }
+
+        private boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class RankedItem {
+        private final int rank;
+        private final Item item;
+    }
+}
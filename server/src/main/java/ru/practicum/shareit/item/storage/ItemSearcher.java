@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+public interface ItemSearcher {
+
+    List<Item> search(String text, boolean fuzzy, ItemSearchCursor after, int limit);
+
+    default ItemSearchCursor cursorAfter(ItemDto item, String text) {
+        return ItemSearchCursor.of(item, text);
+    }
+
+    default boolean matches(Item item, String text, boolean fuzzy) {
+        String query = text.toLowerCase(Locale.ROOT);
+        return fuzzy
+                || item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    default void add(Item item) {
+    }
+
+    default void removeOwner(int ownerId) {
+    }
+
+    default void detachRequests(Collection<Integer> requestIds) {
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
@@ -35,7 +36,9 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@PathVariable int requestId, @RequestHeader("X-Sharer-User-Id") int userId) {
+    public ItemRequestDto getRequestById(@PathVariable int requestId, @RequestHeader("X-Sharer-User-Id") int userId,
+                                         WebRequest request) {
+        if (request.checkNotModified(requestService.getRequestEtag(requestId, userId))) return null;
         return requestService.getRequestById(requestId, userId);
     }
 }
@@ -14,4 +14,6 @@ public interface RequestService {
     List<ItemRequestDto> getAllRequests(int from, int size, int userId);
 
     ItemRequestDto getRequestById(int requestId, int userId);
+
+    String getRequestEtag(int requestId, int userId);
 }
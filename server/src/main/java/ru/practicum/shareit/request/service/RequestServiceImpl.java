@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.Etags;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -11,8 +13,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.RequestRepository;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,14 +24,19 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
 
     @Override
+    @Transactional
     public ItemRequestDto addRequest(ItemRequestCreateDto itemRequestCreateDto, int userId) {
-        checkUserExists(userId);
+        if (!userExistenceCache.existsInDatabase(userId)) {
+            log.warn("Пользователя с id = {} не существует", userId);
+            throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
+        }
         ItemRequest itemRequest = new ItemRequest(null,
                 itemRequestCreateDto.getDescription(),
                 userId,
@@ -68,9 +74,16 @@ public class RequestServiceImpl implements RequestService {
         return ItemRequestMapper.toItemRequestDto(request.get());
     }
 
+    @Override
+    public String getRequestEtag(int requestId, int userId) {
+        checkUserExists(userId);
+        return requestRepository.findVersionById(requestId)
+                .map(items -> Etags.of("request", requestId, items))
+                .orElse(null);
+    }
+
     private void checkUserExists(int userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userExistenceCache.existsInDatabase(userId)) {
             log.warn("Пользователя с id = {} не существует", userId);
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
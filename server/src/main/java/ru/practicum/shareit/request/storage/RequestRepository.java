@@ -2,13 +2,29 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.VersionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Integer> {
 
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<ItemRequest> findAllByRequestorOrderByCreatedDesc(int userId);
 
     List<ItemRequest> findAllByRequestorNotOrderByCreatedDesc(int userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.requestor = :userId")
+    List<Integer> findIdsByRequestor(@Param("userId") int userId);
+
+    @Query("select new ru.practicum.shareit.item.dto.VersionDto(count(i), max(i.id), sum(i.version)) " +
+            "from ItemRequest r left join r.items i " +
+            "where r.id = :requestId " +
+            "group by r.id")
+    Optional<VersionDto> findVersionById(@Param("requestId") int requestId);
 }
@@ -11,6 +11,8 @@ public interface UserService {
 
     UserDto getUser(int userId);
 
+    String getUserEtag(int userId);
+
     UserDto updateUser(int userId, UserUpdateDto userUpdateDto);
 
     void deleteUser(int userId);
@@ -3,11 +3,21 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.Etags;
+import ru.practicum.shareit.common.OptimisticRetry;
+import ru.practicum.shareit.common.TransactionHooks;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearcher;
+import ru.practicum.shareit.request.storage.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
@@ -17,13 +27,22 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final RequestRepository requestRepository;
+    private final ItemSearcher itemSearcher;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemSearchCache itemSearchCache;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
+    @Transactional
     public UserDto addUser(UserDto userDto) {
-        User user = userRepository.save(new User(null, userDto.getName(), userDto.getEmail()));
+        User user = userRepository.saveAndFlush(new User(null, userDto.getName(), userDto.getEmail()));
+        userExistenceCache.add(user.getId());
         log.info("Пользователь с id = {} добавлен", user.getId());
         return UserMapper.toUserDto(user);
     }
@@ -39,7 +58,19 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    public String getUserEtag(int userId) {
+        return userRepository.findById(userId)
+                .map(user -> Etags.of("user", userId, user.getVersion()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto updateUser(int userId, UserUpdateDto userUpdateDto) {
+        return optimisticRetry.execute(User.class, userId, () -> applyUpdate(userId, userUpdateDto));
+    }
+
+    private UserDto applyUpdate(int userId, UserUpdateDto userUpdateDto) {
         Optional<User> userOptional = userRepository.findById(userId);
         if (userOptional.isEmpty()) {
             log.warn("Пользователя с id = {} не существует", userId);
@@ -56,13 +87,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(int userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             log.warn("Пользователя с id = {} не существует", userId);
             throw new UserNotFoundException(String.format("Пользователя с id = %s не существует", userId));
         }
+        List<Integer> requestIds = requestRepository.findIdsByRequestor(userId);
         userRepository.deleteById(userId);
+        userRepository.evictOwnedData();
+        userExistenceCache.remove(userId);
+        TransactionHooks.afterCommit(() -> {
+            itemSearcher.removeOwner(userId);
+            itemSearcher.detachRequests(requestIds);
+            itemNameTrie.removeOwner(userId);
+        });
+        itemSearchCache.invalidateAll();
         log.info("Пользователь с id = {} удалён", userId);
     }
 
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.user.storage;
+
+public interface UserCacheRepository {
+
+    void evictOwnedData();
+}
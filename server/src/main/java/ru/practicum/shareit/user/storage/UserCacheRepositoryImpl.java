@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user.storage;
+
+import org.hibernate.Cache;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class UserCacheRepositoryImpl implements UserCacheRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void evictOwnedData() {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        Runnable evict = () -> {
+            cache.evictEntityData(Item.class);
+            cache.evictEntityData(ItemRequest.class);
+            cache.evictQueryRegions();
+        };
+        TransactionHooks.nowAndAfterCommit(evict);
+    }
+}
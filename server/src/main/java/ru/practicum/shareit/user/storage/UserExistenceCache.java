@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.JournaledSnapshot;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.BitSet;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache {
+
+    private final UserRepository userRepository;
+    private final JournaledSnapshot<BitSet> ids = new JournaledSnapshot<>(new BitSet());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ids.reload(() -> {
+            List<Integer> all = userRepository.findAllIds();
+            BitSet loaded = new BitSet();
+            for (int id : all) {
+                loaded.set(id);
+            }
+            log.info("Кэш пользователей загружен, пользователей: {}", all.size());
+            return loaded;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.users.resync-interval:PT5M}",
+            initialDelayString = "${shareit.users.resync-interval:PT5M}")
+    public void resync() {
+        load();
+    }
+
+    public boolean exists(int userId) {
+        if (userId <= 0) return false;
+        if (ids.read(loaded -> loaded.get(userId))) return true;
+        return existsInDatabase(userId);
+    }
+
+    public boolean existsInDatabase(int userId) {
+        if (userId <= 0) return false;
+        if (!userRepository.existsById(userId)) {
+            ids.apply(loaded -> loaded.clear(userId));
+            return false;
+        }
+        ids.apply(loaded -> loaded.set(userId));
+        return true;
+    }
+
+    public void add(int userId) {
+        TransactionHooks.afterCommit(() -> ids.apply(loaded -> loaded.set(userId)));
+    }
+
+    public void remove(int userId) {
+        TransactionHooks.nowAndAfterCommit(() -> ids.apply(loaded -> loaded.clear(userId)));
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserCacheRepository {
 
     Optional<User> findByEmailIgnoreCase(String emailSearch);
+
+    @Query("select u.id from User u")
+    List<Integer> findAllIds();
 }
 
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users (
 id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
 name VARCHAR(300) NOT NULL,
@@ -41,4 +35,4 @@ text VARCHAR(500),
 item_id INTEGER REFERENCES items(id) ON DELETE CASCADE,
 author_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
 created TIMESTAMP
-);
\ No newline at end of file
+);
@@ -0,0 +1,14 @@
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_start_date_idx ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_start_date_idx ON bookings (item_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_idx ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS bookings_booker_id_status_start_date_idx ON bookings (booker_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS bookings_end_date_idx ON bookings (end_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_id_created_idx ON comments (item_id, created);
+CREATE INDEX IF NOT EXISTS comments_author_id_idx ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_id_created_idx ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created);
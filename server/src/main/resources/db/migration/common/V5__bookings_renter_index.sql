@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS bookings_item_id_booker_id_end_date_idx ON bookings (item_id, booker_id, end_date);
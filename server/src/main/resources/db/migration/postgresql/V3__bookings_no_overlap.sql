@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+UPDATE bookings b SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+AND EXISTS (
+SELECT 1 FROM bookings e
+WHERE e.item_id = b.item_id
+AND e.id < b.id
+AND e.status IN ('WAITING', 'APPROVED')
+AND tsrange(e.start_date, e.end_date) && tsrange(b.start_date, b.end_date)
+);
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist (
+item_id WITH =,
+tsrange(start_date, end_date) WITH &&
+) WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,5 @@
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE requests ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE items ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE bookings ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE comments ALTER COLUMN id DROP DEFAULT;
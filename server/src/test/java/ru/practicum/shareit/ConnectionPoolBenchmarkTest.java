@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConnectionPoolBenchmarkTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.addUser(new UserDto(null, "owner", "owner@mail.ru"));
+        for (int i = 0; i < 20; i++) {
+            itemService.addItem(ItemDto.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .build(), owner.getId());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userService.deleteUser(owner.getId());
+    }
+
+    @Test
+    public void saturatedPoolServesRequestsWithinBudget() {
+        LatencyBenchmark benchmark = LatencyBenchmark.runConcurrently("owner items, pool of 2", 32, 5000, i -> {
+            try {
+                mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                        .andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Assertions.assertTrue(benchmark.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.saturated-pool", 200));
+    }
+}
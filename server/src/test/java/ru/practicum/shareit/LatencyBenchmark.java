@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+@Slf4j
+public class LatencyBenchmark {
+
+    private final String name;
+    private final long[] samples;
+
+    private LatencyBenchmark(String name, long[] samples) {
+        this.name = name;
+        this.samples = samples;
+    }
+
+    public static LatencyBenchmark run(String name, int warmup, int iterations, IntConsumer operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.accept(i);
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.accept(i);
+            samples[i] = System.nanoTime() - start;
+        }
+        return report(name, samples);
+    }
+
+    public static LatencyBenchmark runConcurrently(String name, int threads, int iterations, IntConsumer operation) {
+        long[] samples = new long[iterations];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < iterations; i = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        operation.accept(i);
+                        samples[i] = System.nanoTime() - start;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return report(name + ", " + threads + " threads", samples);
+    }
+
+    public static double budgetMillis(String property, double defaultMillis) {
+        return Double.parseDouble(System.getProperty(property, String.valueOf(defaultMillis)));
+    }
+
+    public double percentileMillis(double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+        return samples[Math.max(0, Math.min(index, samples.length - 1))] / 1_000_000.0;
+    }
+
+    private static LatencyBenchmark report(String name, long[] samples) {
+        Arrays.sort(samples);
+        LatencyBenchmark benchmark = new LatencyBenchmark(name, samples);
+        log.info(String.format(Locale.ROOT, "%s: p50 = %.3f ms, p99 = %.3f ms, max = %.3f ms", name,
+                benchmark.percentileMillis(50), benchmark.percentileMillis(99), benchmark.percentileMillis(100)));
+        return benchmark;
+    }
+}
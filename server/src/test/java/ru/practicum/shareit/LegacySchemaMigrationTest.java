@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Properties;
+
+public class LegacySchemaMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "test", "test");
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy/schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@mail.ru')");
+        jdbcTemplate.update("insert into users (name, email) values ('booker', 'booker@mail.ru')");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) values ('Дрель', 'Простая дрель', true, 1)");
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (timestamp '2024-01-01 10:00:00', timestamp '2024-01-02 10:00:00', 1, 2, 'APPROVED')");
+    }
+
+    @Test
+    public void migratesSchemaCreatedBySchemaSql() throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common")
+                .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+                .load();
+
+        flyway.migrate();
+
+        MigrationInfo[] applied = flyway.info().applied();
+        Assertions.assertEquals(MigrationType.BASELINE, applied[0].getType());
+        Assertions.assertEquals("0", applied[0].getVersion().getVersion());
+        Assertions.assertEquals("1", applied[1].getVersion().getVersion());
+        Assertions.assertEquals(0, flyway.info().pending().length);
+        Assertions.assertEquals("owner", jdbcTemplate.queryForObject("select name from users where id = 1", String.class));
+        Assertions.assertEquals(0L, jdbcTemplate.queryForObject("select version from items where id = 1", Long.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("select count(*) from bookings where status = 'APPROVED'",
+                Integer.class));
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.common.OptimisticRetry;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearcher;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, ItemServiceImpl.class, OptimisticRetry.class})
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private UserExistenceCache userExistenceCache;
+    @MockBean
+    private ItemSearcher itemSearcher;
+    @MockBean
+    private ItemNameTrie itemNameTrie;
+    @MockBean
+    private ItemSearchCache itemSearchCache;
+    @MockBean
+    private BookingAvailabilityIndex availabilityIndex;
+
+    private Statistics statistics;
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        user = userRepository.save(new User(null, "cached", "cached@mail.ru"));
+        item = itemRepository.save(Item.builder()
+                .name("cached")
+                .description("description")
+                .available(true)
+                .owner(user.getId())
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void getUserHitsSecondLevelCache() {
+        userService.getUser(user.getId());
+        long statements = statistics.getPrepareStatementCount();
+        Assertions.assertEquals("cached", userService.getUser(user.getId()).getName());
+        Assertions.assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        Assertions.assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getUserAfterUpdateReturnsNewValues() {
+        userService.getUser(user.getId());
+        String etag = userService.getUserEtag(user.getId());
+        userService.updateUser(user.getId(), new UserUpdateDto("renamed", null));
+        Assertions.assertEquals("renamed", userService.getUser(user.getId()).getName());
+        Assertions.assertNotEquals(etag, userService.getUserEtag(user.getId()));
+    }
+
+    @Test
+    public void getItemAfterUpdateReturnsNewValues() {
+        when(userExistenceCache.existsInDatabase(anyInt())).thenReturn(true);
+        itemService.getItem(item.getId(), user.getId());
+        String etag = itemService.getItemEtag(item.getId(), user.getId());
+        itemService.updateItem(new ItemUpdateDto("renamed", null, false), user.getId(), item.getId());
+        Assertions.assertEquals("renamed", itemService.getItem(item.getId(), user.getId()).getName());
+        Assertions.assertFalse(itemService.getItem(item.getId(), user.getId()).getAvailable());
+        Assertions.assertNotEquals(etag, itemService.getItemEtag(item.getId(), user.getId()));
+        Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    public void updateUserRetriesWhenCachedVersionIsStale() {
+        userService.getUser(user.getId());
+        jdbcTemplate.update("update users set name = 'remote', version = version + 1 where id = ?", user.getId());
+        Assertions.assertEquals("remote", userService.updateUser(user.getId(),
+                new UserUpdateDto(null, "updated@mail.ru")).getName());
+        Assertions.assertEquals("updated@mail.ru", userService.getUser(user.getId()).getEmail());
+        Assertions.assertEquals(2, userRepository.findById(user.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void concurrentItemUpdatesSucceedOrConflict() throws Exception {
+        when(userExistenceCache.existsInDatabase(anyInt())).thenReturn(true);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> updates = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String name = "renamed" + i;
+            updates.add(executor.submit(() -> {
+                start.await();
+                return itemService.updateItem(new ItemUpdateDto(name, null, null), user.getId(), item.getId());
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<?> update : updates) {
+            try {
+                update.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                Assertions.assertInstanceOf(OptimisticLockingFailureException.class, e.getCause());
+            }
+        }
+        executor.shutdown();
+        Assertions.assertTrue(succeeded > 0);
+        Assertions.assertEquals(succeeded, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+}
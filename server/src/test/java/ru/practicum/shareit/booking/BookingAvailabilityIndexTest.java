@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityIndexTest {
+
+    @InjectMocks
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    public void findFreeSlotsWithoutBookings() {
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base, base.plusHours(10));
+        Assertions.assertEquals(List.of(new FreeSlotDto(base, base.plusHours(10))), slots);
+    }
+
+    @Test
+    public void findFreeSlots() {
+        availabilityIndex.add(1, 1, base.plusHours(1), base.plusHours(2));
+        availabilityIndex.add(1, 2, base.plusHours(4), base.plusHours(6));
+        availabilityIndex.add(2, 3, base, base.plusHours(10));
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base, base.plusHours(10));
+        Assertions.assertEquals(List.of(
+                new FreeSlotDto(base, base.plusHours(1)),
+                new FreeSlotDto(base.plusHours(2), base.plusHours(4)),
+                new FreeSlotDto(base.plusHours(6), base.plusHours(10))), slots);
+    }
+
+    @Test
+    public void findFreeSlotsWithBookingStartedBeforePeriod() {
+        availabilityIndex.add(1, 1, base, base.plusHours(5));
+        availabilityIndex.add(1, 2, base.plusHours(1), base.plusHours(2));
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base.plusHours(3), base.plusHours(10));
+        Assertions.assertEquals(List.of(new FreeSlotDto(base.plusHours(5), base.plusHours(10))), slots);
+    }
+
+    @Test
+    public void findFreeSlotsFullyBooked() {
+        availabilityIndex.add(1, 1, base, base.plusHours(10));
+        Assertions.assertTrue(availabilityIndex.findFreeSlots(1, base.plusHours(1), base.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    public void removeBooking() {
+        availabilityIndex.add(1, 1, base.plusHours(1), base.plusHours(2));
+        availabilityIndex.remove(1, 1, base.plusHours(1));
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base, base.plusHours(3));
+        Assertions.assertEquals(List.of(new FreeSlotDto(base, base.plusHours(3))), slots);
+    }
+
+    @Test
+    public void pastBookingsAreNotIndexed() {
+        LocalDateTime now = LocalDateTime.now();
+        availabilityIndex.add(1, 1, now.minusHours(2), now.minusHours(1));
+        availabilityIndex.prune();
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, now.minusHours(3), now.minusMinutes(30));
+        Assertions.assertEquals(1, slots.size());
+    }
+
+    @Test
+    public void load() {
+        when(bookingRepository.findIntervalsEndingAfter(any(), any())).thenReturn(List.of(
+                new BookingIntervalDto(1, 1, base.plusHours(1), base.plusHours(2))));
+        availabilityIndex.load();
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base.plusHours(1), base.plusHours(3));
+        Assertions.assertEquals(List.of(new FreeSlotDto(base.plusHours(2), base.plusHours(3))), slots);
+    }
+
+    @Test
+    public void resyncDropsBookingsMissingInDatabase() {
+        availabilityIndex.add(1, 1, base.plusHours(1), base.plusHours(2));
+        when(bookingRepository.findIntervalsEndingAfter(any(), any())).thenReturn(List.of(
+                new BookingIntervalDto(1, 2, base.plusHours(4), base.plusHours(5))));
+        availabilityIndex.resync();
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base, base.plusHours(6));
+        Assertions.assertEquals(List.of(
+                new FreeSlotDto(base, base.plusHours(4)),
+                new FreeSlotDto(base.plusHours(5), base.plusHours(6))), slots);
+    }
+
+    @Test
+    public void resyncKeepsChangesMadeDuringLoad() {
+        when(bookingRepository.findIntervalsEndingAfter(any(), any())).thenAnswer(invocation -> {
+            availabilityIndex.add(1, 2, base.plusHours(4), base.plusHours(5));
+            availabilityIndex.remove(1, 1, base.plusHours(1));
+            return List.of(new BookingIntervalDto(1, 1, base.plusHours(1), base.plusHours(2)));
+        });
+        availabilityIndex.resync();
+        List<FreeSlotDto> slots = availabilityIndex.findFreeSlots(1, base, base.plusHours(6));
+        Assertions.assertEquals(List.of(
+                new FreeSlotDto(base, base.plusHours(4)),
+                new FreeSlotDto(base.plusHours(5), base.plusHours(6))), slots);
+    }
+}
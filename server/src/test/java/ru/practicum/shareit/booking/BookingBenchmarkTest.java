@@ -0,0 +1,212 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.LatencyBenchmark;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingFilter;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BookingBenchmarkTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private LocalDateTime base;
+    private User booker;
+
+    @BeforeEach
+    public void setUp() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+    }
+
+    @Test
+    public void availabilityIndexIsFasterThanSql() {
+        List<Item> items = persistItems("owner", 200);
+        for (Item item : items) {
+            for (int i = 0; i < 50; i++) {
+                em.persist(new Booking(null, base.plusHours(2 * i), base.plusHours(2 * i + 1), item, booker,
+                        BookingStatus.APPROVED.name()));
+            }
+        }
+        em.flush();
+        em.clear();
+        BookingAvailabilityIndex availabilityIndex = new BookingAvailabilityIndex(bookingRepository);
+        availabilityIndex.load();
+
+        LatencyBenchmark sql = LatencyBenchmark.run("free slots via sql, 10k bookings", 200, 2000, i -> {
+            int itemId = items.get(i % items.size()).getId();
+            em.getEntityManager().createQuery("select b.start, b.end from Booking b " +
+                            "where b.item.id = :itemId and b.end > :from and b.start < :to and b.status in :statuses " +
+                            "order by b.start", Object[].class)
+                    .setParameter("itemId", itemId)
+                    .setParameter("from", base)
+                    .setParameter("to", base.plusDays(2))
+                    .setParameter("statuses", BookingStatus.BLOCKING)
+                    .getResultList();
+        });
+        LatencyBenchmark index = LatencyBenchmark.run("free slots via index, 10k bookings", 200, 2000,
+                i -> availabilityIndex.findFreeSlots(items.get(i % items.size()).getId(), base, base.plusDays(2)));
+        Assertions.assertTrue(index.percentileMillis(50) < sql.percentileMillis(50));
+        Assertions.assertTrue(index.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.availability", 1));
+    }
+
+    @Test
+    public void ownerBookingsLatencyDoesNotGrowWithItemCount() {
+        List<Item> smallOwnerItems = persistItems("small", 100);
+        List<Item> largeOwnerItems = persistItems("large", 10_000);
+        persistBookings(smallOwnerItems);
+        persistBookings(largeOwnerItems);
+        em.flush();
+        em.clear();
+        int smallOwner = smallOwnerItems.get(0).getOwner();
+        int largeOwner = largeOwnerItems.get(0).getOwner();
+
+        LatencyBenchmark.run("owner bookings, 100 items", 200, 1000, i -> findByOwner(smallOwner));
+        LatencyBenchmark large = LatencyBenchmark.run("owner bookings, 10k items", 200, 1000,
+                i -> findByOwner(largeOwner));
+        Assertions.assertTrue(large.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.owner-bookings", 20));
+    }
+
+    @Test
+    public void rentalCheckStaysWithinBudget() {
+        Item item = persistItems("owner", 1).get(0);
+        for (int i = 0; i < 100; i++) {
+            em.persist(new Booking(null, base.minusDays(200 - i), base.minusDays(200 - i).plusHours(1), item, booker,
+                    BookingStatus.APPROVED.name()));
+        }
+        em.flush();
+        em.clear();
+
+        LatencyBenchmark benchmark = LatencyBenchmark.run("rental check, 100 past bookings", 500, 5000, i -> {
+            itemRepository.findWithRenter(item.getId(), booker.getId(), LocalDateTime.now(),
+                    BookingStatus.REJECTED.name());
+            em.clear();
+        });
+        Assertions.assertTrue(benchmark.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.rental-check", 5));
+    }
+
+    @Test
+    public void batchInsertStaysWithinBudget() {
+        Item item = persistItems("owner", 1).get(0);
+        em.flush();
+        AtomicInteger batch = new AtomicInteger();
+
+        LatencyBenchmark benchmark = LatencyBenchmark.run("batch insert, 1000 bookings", 3, 30, i -> {
+            LocalDateTime start = base.plusDays(batch.getAndIncrement());
+            List<Booking> bookings = new ArrayList<>();
+            for (int j = 0; j < 1000; j++) {
+                bookings.add(new Booking(null, start.plusSeconds(j), start.plusSeconds(j + 1),
+                        em.getEntityManager().getReference(Item.class, item.getId()),
+                        em.getEntityManager().getReference(User.class, booker.getId()),
+                        BookingStatus.WAITING.name()));
+            }
+            bookingRepository.saveAll(bookings);
+            em.flush();
+            em.clear();
+        });
+        log.info("batch insert: {} bookings/s", Math.round(1000 / benchmark.percentileMillis(50) * 1000));
+        Assertions.assertTrue(benchmark.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.batch-insert", 500));
+    }
+
+    @Test
+    public void identityInsertBaseline() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:identity;DB_CLOSE_DELAY=-1",
+                "test", "test");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common")
+                .target("6")
+                .load()
+                .migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@mail.ru')");
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "values ('item', 'description', true, 1)");
+        AtomicInteger batch = new AtomicInteger();
+
+        LatencyBenchmark benchmark = LatencyBenchmark.run("identity insert, 1000 bookings", 3, 30, i -> {
+            LocalDateTime start = base.plusDays(batch.getAndIncrement());
+            for (int j = 0; j < 1000; j++) {
+                Timestamp from = Timestamp.valueOf(start.plusSeconds(j));
+                Timestamp to = Timestamp.valueOf(start.plusSeconds(j + 1));
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("insert into bookings " +
+                            "(start_date, end_date, item_id, booker_id, status) values (?, ?, 1, 1, ?)", new String[]{"id"});
+                    statement.setTimestamp(1, from);
+                    statement.setTimestamp(2, to);
+                    statement.setString(3, BookingStatus.WAITING.name());
+                    return statement;
+                }, new GeneratedKeyHolder());
+            }
+        });
+        log.info("identity insert: {} bookings/s", Math.round(1000 / benchmark.percentileMillis(50) * 1000));
+        Assertions.assertEquals(30_000 + 3_000, jdbcTemplate.queryForObject("select count(*) from bookings",
+                Integer.class));
+    }
+
+    private List<Item> persistItems(String ownerName, int count) {
+        User owner = em.persist(new User(null, ownerName, ownerName + "@mail.ru"));
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(em.persist(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(owner.getId())
+                    .build()));
+        }
+        return items;
+    }
+
+    private void persistBookings(List<Item> items) {
+        for (int i = 0; i < items.size(); i++) {
+            em.persist(new Booking(null, base.plusHours(i), base.plusHours(i + 1), items.get(i), booker,
+                    BookingStatus.APPROVED.name()));
+        }
+    }
+
+    private void findByOwner(int ownerId) {
+        bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(ownerId)
+                .cursor(BookingCursor.decode(null))
+                .limit(20)
+                .build());
+        em.clear();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.State;
@@ -21,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -155,7 +157,7 @@ public class BookingControllerTest {
 
     @Test
     public void getAllUserBookings() throws Exception {
-        when(bookingService.getAllUserBookings(anyString(), anyInt())).thenReturn(new ArrayList<>());
+        when(bookingService.getAllUserBookings(anyString(), anyInt(), any(), anyInt())).thenReturn(new ArrayList<>());
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", State.ALL.name())
@@ -163,14 +165,51 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
                 .andExpect(MockMvcResultMatchers.content().json("[]")
                 );
-        verify(bookingService, times(1)).getAllUserBookings(anyString(), anyInt());
+        verify(bookingService, times(1)).getAllUserBookings(anyString(), anyInt(), isNull(), eq(100));
+    }
+
+    @Test
+    public void getAllUserBookingsFullPage() throws Exception {
+        Item item = Item.builder()
+                .id(1)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(2)
+                .request(null)
+                .build();
+        User user = new User(2, "name", "test@mail.ru");
+        BookingDto bookingDto = BookingDto.builder()
+                .id(7)
+                .start(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .end(LocalDateTime.of(2024, 1, 1, 11, 0))
+                .item(item)
+                .booker(user)
+                .status("WAITING")
+                .build();
+        when(bookingService.getAllUserBookings(anyString(), anyInt(), anyString(), anyInt())).thenReturn(List.of(bookingDto));
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", State.ALL.name())
+                        .param("cursor", "cursor")
+                        .param("limit", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor",
+                        new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", Matchers.is(bookingDto.getId()), Integer.class)
+                );
+        verify(bookingService, times(1)).getAllUserBookings("ALL", 1, "cursor", 1);
     }
 
     @Test
     public void getAllUserItemsBookings() throws Exception {
-        when(bookingService.getAllUserItemsBookings(anyString(), anyInt())).thenReturn(new ArrayList<>());
+        when(bookingService.getAllUserItemsBookings(anyString(), anyInt(), any(), anyInt())).thenReturn(new ArrayList<>());
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
                         .param("state", State.ALL.name())
@@ -180,7 +219,7 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.content().json("[]")
                 );
-        verify(bookingService, times(1)).getAllUserItemsBookings(anyString(), anyInt());
+        verify(bookingService, times(1)).getAllUserItemsBookings(anyString(), anyInt(), isNull(), eq(100));
     }
 
 }
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookingServiceImpl.class)
+public class BookingOverlapTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @MockBean
+    private UserExistenceCache userExistenceCache;
+    @MockBean
+    private BookingAvailabilityIndex availabilityIndex;
+
+    private User owner;
+    private List<User> bookers;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(new User(null, "owner", "overlap-owner@mail.ru"));
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        bookers = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookers.forEach(booker -> userRepository.deleteById(booker.getId()));
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    public void concurrentOverlappingBookingsAreRejected() throws Exception {
+        int threads = 4;
+        for (int i = 0; i < threads; i++) {
+            bookers.add(userRepository.save(new User(null, "booker" + i, "overlap-booker" + i + "@mail.ru")));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> bookings = new ArrayList<>();
+        for (User booker : bookers) {
+            bookings.add(executor.submit(() -> {
+                ready.await();
+                return bookingService.addBooking(new BookingCreateDto(item.getId(), start, start.plusHours(2)),
+                        booker.getId());
+            }));
+        }
+        ready.countDown();
+        int succeeded = 0;
+        for (Future<?> booking : bookings) {
+            try {
+                booking.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                Assertions.assertInstanceOf(BookingOverlapException.class, e.getCause());
+            }
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, succeeded);
+        Assertions.assertEquals(1, bookingRepository.count());
+    }
+}
@@ -0,0 +1,307 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingsVersionDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingFilter;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    public void setUp() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            Item item = em.persist(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(owner.getId())
+                    .build());
+            User itemBooker = em.persist(new User(null, "booker" + i, "booker" + i + "@mail.ru"));
+            em.persist(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1), item, itemBooker,
+                    BookingStatus.WAITING.name()));
+            booking = em.persist(new Booking(null, start.minusDays(i + 1), start.minusDays(i + 1).plusHours(1), item,
+                    booker, BookingStatus.APPROVED.name()));
+        }
+        em.flush();
+        em.clear();
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findFilteredByBookerRunsOneStatement() {
+        List<BookingDto> bookings = toDtos(bookingRepository.findFiltered(BookingFilter.builder()
+                .bookerId(booker.getId())
+                .cursor(BookingCursor.decode(null))
+                .limit(10)
+                .build()));
+        Assertions.assertEquals(3, bookings.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findFilteredByOwnerRunsOneStatement() {
+        List<BookingDto> bookings = toDtos(bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .cursor(BookingCursor.decode(null))
+                .limit(10)
+                .build()));
+        Assertions.assertEquals(6, bookings.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findWithItemAndBookerByIdRunsOneStatement() {
+        BookingDto bookingDto = BookingMapper.toBookingDto(
+                bookingRepository.findWithItemAndBookerById(booking.getId()).orElseThrow());
+        Assertions.assertEquals("booker", bookingDto.getBooker().getName());
+        Assertions.assertEquals(owner.getId(), bookingDto.getItem().getOwner());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findVersionByItemCountsStartedAndRejectedBookings() {
+        int itemId = booking.getItem().getId();
+        BookingsVersionDto now = bookingRepository.findVersionByItem(itemId, LocalDateTime.now(),
+                BookingStatus.REJECTED.name());
+        Assertions.assertEquals(2L, now.getCount());
+        Assertions.assertEquals(1L, now.getStarted());
+        Assertions.assertEquals(0L, now.getRejected());
+        BookingsVersionDto later = bookingRepository.findVersionByItem(itemId, LocalDateTime.now().plusDays(10),
+                BookingStatus.WAITING.name());
+        Assertions.assertEquals(2L, later.getStarted());
+        Assertions.assertEquals(1L, later.getRejected());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findFilteredCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = findFiltered(BookingFilter.builder()
+                .bookerId(booker.getId())
+                .startBefore(now)
+                .endAfter(now));
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertTrue(bookings.get(0).getStart().isBefore(now));
+        Assertions.assertTrue(bookings.get(0).getEnd().isAfter(now));
+    }
+
+    @Test
+    public void findFilteredPast() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = findFiltered(BookingFilter.builder()
+                .bookerId(booker.getId())
+                .endBefore(now));
+        Assertions.assertEquals(2, bookings.size());
+        Assertions.assertTrue(bookings.stream().allMatch(found -> found.getEnd().isBefore(now)));
+        Assertions.assertTrue(bookings.get(0).getStart().isAfter(bookings.get(1).getStart()));
+    }
+
+    @Test
+    public void findFilteredFuture() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .startAfter(now));
+        Assertions.assertEquals(3, bookings.size());
+        Assertions.assertTrue(bookings.stream().allMatch(found -> found.getStart().isAfter(now)));
+        Assertions.assertTrue(findFiltered(BookingFilter.builder()
+                .bookerId(booker.getId())
+                .startAfter(now)).isEmpty());
+    }
+
+    @Test
+    public void findFilteredByStatus() {
+        Item item = em.find(Item.class, booking.getItem().getId());
+        User rejectedBooker = em.persist(new User(null, "rejected", "rejected@mail.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        em.persist(new Booking(null, start, start.plusHours(1), item, rejectedBooker, BookingStatus.REJECTED.name()));
+        em.flush();
+        em.clear();
+        List<Booking> waiting = findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .status(BookingStatus.WAITING.name()));
+        Assertions.assertEquals(3, waiting.size());
+        Assertions.assertTrue(waiting.stream()
+                .allMatch(found -> found.getStatus().equals(BookingStatus.WAITING.name())));
+        List<Booking> rejected = findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .status(BookingStatus.REJECTED.name()));
+        Assertions.assertEquals(1, rejected.size());
+        Assertions.assertEquals(rejectedBooker.getId(), rejected.get(0).getBooker().getId());
+        Assertions.assertTrue(findFiltered(BookingFilter.builder()
+                .bookerId(booker.getId())
+                .status(BookingStatus.REJECTED.name())).isEmpty());
+    }
+
+    @Test
+    public void findFilteredPagesAcrossCursor() {
+        List<Booking> all = findFiltered(BookingFilter.builder().ownerId(owner.getId()));
+        Assertions.assertEquals(6, all.size());
+        List<Booking> firstPage = bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .cursor(BookingCursor.decode(null))
+                .limit(4)
+                .build());
+        Booking last = firstPage.get(firstPage.size() - 1);
+        List<Booking> secondPage = bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(owner.getId())
+                .cursor(new BookingCursor(last.getStart(), last.getId()))
+                .limit(4)
+                .build());
+        Assertions.assertEquals(toIds(all.subList(0, 4)), toIds(firstPage));
+        Assertions.assertEquals(toIds(all.subList(4, 6)), toIds(secondPage));
+    }
+
+    @Test
+    public void findFilteredPagesAcrossEqualStarts() {
+        User otherOwner = em.persist(new User(null, "other", "other@mail.ru"));
+        Item item = em.persist(Item.builder()
+                .name("other")
+                .description("description")
+                .available(true)
+                .owner(otherOwner.getId())
+                .build());
+        User itemBooker = em.find(User.class, booker.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(7).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Booking(null, start, start.plusHours(1), item, itemBooker, BookingStatus.APPROVED.name()));
+        }
+        em.flush();
+        em.clear();
+        List<Booking> firstPage = bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(otherOwner.getId())
+                .cursor(BookingCursor.decode(null))
+                .limit(2)
+                .build());
+        Assertions.assertEquals(2, firstPage.size());
+        Assertions.assertTrue(firstPage.get(0).getId() > firstPage.get(1).getId());
+        List<Booking> secondPage = bookingRepository.findFiltered(BookingFilter.builder()
+                .ownerId(otherOwner.getId())
+                .cursor(new BookingCursor(start, firstPage.get(1).getId()))
+                .limit(2)
+                .build());
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertTrue(secondPage.get(0).getId() < firstPage.get(1).getId());
+    }
+
+    @Test
+    public void findLastAndNextBookingsByItemOwnerRunOneStatementEach() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingDto> last = bookingRepository.findLastBookingsByItemOwner(owner.getId(), now);
+        List<ItemBookingDto> next = bookingRepository.findNextBookingsByItemOwner(owner.getId(), now,
+                BookingStatus.REJECTED.name());
+        Assertions.assertEquals(3, last.size());
+        Assertions.assertTrue(last.stream().allMatch(found -> found.getBookerId().equals(booker.getId())));
+        Assertions.assertEquals(3, next.size());
+        Assertions.assertTrue(next.stream().noneMatch(found -> found.getBookerId().equals(booker.getId())));
+        Assertions.assertEquals(3, next.stream().map(ItemBookingDto::getItemId).distinct().count());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findLastAndNextBookingsByItemOwnerWithEqualStarts() {
+        User otherOwner = em.persist(new User(null, "other", "other@mail.ru"));
+        Item item = em.persist(Item.builder()
+                .name("other")
+                .description("description")
+                .available(true)
+                .owner(otherOwner.getId())
+                .build());
+        em.persist(Item.builder()
+                .name("not booked")
+                .description("description")
+                .available(true)
+                .owner(otherOwner.getId())
+                .build());
+        User itemBooker = em.find(User.class, booker.getId());
+        LocalDateTime past = LocalDateTime.now().minusDays(3).withNano(0);
+        LocalDateTime future = LocalDateTime.now().plusDays(3).withNano(0);
+        em.persist(new Booking(null, past.minusDays(1), past, item, itemBooker, BookingStatus.APPROVED.name()));
+        for (int i = 0; i < 2; i++) {
+            em.persist(new Booking(null, past, past.plusHours(1), item, itemBooker, BookingStatus.APPROVED.name()));
+            em.persist(new Booking(null, future, future.plusHours(1), item, itemBooker, BookingStatus.WAITING.name()));
+        }
+        em.persist(new Booking(null, future.minusDays(1), future, item, itemBooker, BookingStatus.REJECTED.name()));
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingDto> last = bookingRepository.findLastBookingsByItemOwner(otherOwner.getId(), now);
+        List<ItemBookingDto> next = bookingRepository.findNextBookingsByItemOwner(otherOwner.getId(), now,
+                BookingStatus.REJECTED.name());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(2, last.size());
+        Assertions.assertEquals(2, next.size());
+        Assertions.assertTrue(last.stream().allMatch(found -> found.getItemId().equals(item.getId())));
+        Assertions.assertTrue(next.stream().allMatch(found -> found.getItemId().equals(item.getId())));
+        Assertions.assertTrue(last.get(0).getId() < last.get(1).getId());
+        Assertions.assertTrue(next.get(0).getId() < next.get(1).getId());
+        Assertions.assertEquals(last.get(0).getId(), bookingRepository.findLastBookings(item.getId(), now,
+                PageRequest.of(0, 1)).get(0).getId());
+        Assertions.assertEquals(next.get(0).getId(), bookingRepository.findNextBookings(item.getId(), now,
+                BookingStatus.REJECTED.name(), PageRequest.of(0, 1)).get(0).getId());
+    }
+
+    private List<Booking> findFiltered(BookingFilter.BookingFilterBuilder filter) {
+        return bookingRepository.findFiltered(filter
+                .cursor(BookingCursor.decode(null))
+                .limit(100)
+                .build());
+    }
+
+    private List<Integer> toIds(List<Booking> bookings) {
+        return bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<BookingDto> toDtos(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .peek(bookingDto -> {
+                    bookingDto.getItem().getName();
+                    bookingDto.getBooker().getName();
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -5,20 +5,28 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.storage.BookingFilter;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.item.dto.ItemWithUserDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,9 +44,11 @@ public class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
 
     private User user;
     private Item item;
@@ -73,49 +83,96 @@ public class BookingServiceImplTest {
 
     @Test
     public void addBooking() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
+        when(bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Booking saved = invocation.getArgument(0);
+            saved.setId(1);
+            return saved;
+        });
         BookingDto bookingDto = bookingService.addBooking(bookingCreateDto, 1);
         Assertions.assertNotNull(bookingDto);
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).save(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
+        verify(bookingRepository, times(1)).saveAndFlush(any());
+        verify(availabilityIndex, times(1)).add(1, 1, bookingCreateDto.getStart(), bookingCreateDto.getEnd());
+    }
+
+    @Test
+    public void addBookingOverlap() {
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
+        when(bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(true);
+        Assert.assertThrows(BookingOverlapException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void addBookingOverlapConstraintViolation() {
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
+        when(bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"", "23P01"),
+                        "bookings_no_overlap")));
+        Assert.assertThrows(BookingOverlapException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
+    }
+
+    @Test
+    public void addBookingConstraintMentionedOnlyInMessage() {
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
+        when(bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("bookings_no_overlap",
+                        new SQLException("insert or update violates foreign key constraint \"bookings_item_id_fkey\"", "23503"),
+                        "bookings_item_id_fkey")));
+        Assert.assertThrows(DataIntegrityViolationException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
+    }
+
+    @Test
+    public void addBookingOtherConstraintViolation() {
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
+        when(bookingRepository.existsByItem_idAndStatusInAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk violation"));
+        Assert.assertThrows(DataIntegrityViolationException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
     }
 
     @Test
     public void addBookingUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(1)).thenReturn(false);
         Assert.assertThrows(UserNotFoundException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).exists(anyInt());
     }
 
     @Test
     public void addBookingItemNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.empty());
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(1)).thenReturn(true);
         Assert.assertThrows(ItemNotFoundException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).exists(anyInt());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
     }
 
     @Test
     public void addBookingOwnItem() {
-        when(userRepository.findById(2)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 2)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(BookingOwnItemException.class, () -> bookingService.addBooking(bookingCreateDto, 2));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
     public void addBookingItemNotAvailable() {
         item.setAvailable(false);
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(ItemNotAvailableException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
@@ -125,11 +182,10 @@ public class BookingServiceImplTest {
                 null,
                 LocalDateTime.now()
         );
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
@@ -139,11 +195,10 @@ public class BookingServiceImplTest {
                 LocalDateTime.now(),
                 null
         );
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
@@ -154,11 +209,10 @@ public class BookingServiceImplTest {
                 date,
                 date
         );
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
@@ -168,45 +222,46 @@ public class BookingServiceImplTest {
                 LocalDateTime.now().plusHours(1),
                 LocalDateTime.now()
         );
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithUser(1, 1)).thenReturn(Optional.of(itemWithUser(item, user)));
         Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.addBooking(bookingCreateDto, 1));
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findById(any());
+        verify(itemRepository, times(1)).findWithUser(anyInt(), anyInt());
+        verifyNoInteractions(userExistenceCache);
     }
 
     @Test
     public void approveBooking() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         BookingDto bookingDto = bookingService.approveBooking(1, 2, true);
         Assertions.assertNotNull(bookingDto);
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
         verify(bookingRepository, times(1)).save(any());
+        verifyNoInteractions(availabilityIndex);
     }
 
     @Test
     public void rejectBooking() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         BookingDto bookingDto = bookingService.approveBooking(1, 2, false);
         Assertions.assertNotNull(bookingDto);
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
         verify(bookingRepository, times(1)).save(any());
+        verify(availabilityIndex, times(1)).remove(1, 1, booking.getStart());
     }
 
     @Test
     public void approveBookingNotExist() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.empty());
         Assert.assertThrows(BookingNotFoundException.class, () -> bookingService.approveBooking(1, 2, true));
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
     }
 
     @Test
     public void approveBookingIncorrectItemOwner() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
         Assert.assertThrows(IncorrectBookingOwnerIdException.class, () -> bookingService.approveBooking(1, 1, true));
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
     }
 
     @Test
@@ -219,220 +274,285 @@ public class BookingServiceImplTest {
                 user,
                 "APPROVED"
         );
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
         Assert.assertThrows(BookingStatusAlreadyChangedException.class, () -> bookingService.approveBooking(1, 2, true));
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
     }
 
     @Test
     public void getBookingById() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(2)).thenReturn(Optional.of(user));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
+        when(userExistenceCache.exists(2)).thenReturn(true);
         BookingDto bookingDto = bookingService.getBookingById(1, 2);
         Assertions.assertNotNull(bookingDto);
-        verify(bookingRepository, times(1)).findById(any());
-        verify(userRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
+        verify(userExistenceCache, times(1)).exists(anyInt());
     }
 
     @Test
     public void getBookingByIdNotExist() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.empty());
         Assert.assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingById(1, 2));
-        verify(bookingRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
     }
 
     @Test
     public void getBookingByIdUserNotExist() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(2)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
+        when(userExistenceCache.exists(2)).thenReturn(false);
         Assert.assertThrows(IncorrectItemOwnerIdException.class, () -> bookingService.getBookingById(1, 2));
-        verify(bookingRepository, times(1)).findById(any());
-        verify(userRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
+        verify(userExistenceCache, times(1)).exists(anyInt());
     }
 
     @Test
     public void getBookingByIdIncorrectOwner() {
-        when(bookingRepository.findById(1)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(bookingRepository.findWithItemAndBookerById(1)).thenReturn(Optional.of(booking));
+        when(userExistenceCache.exists(1)).thenReturn(true);
         Assert.assertThrows(IncorrectBookingOwnerIdException.class, () -> bookingService.getBookingById(1, 1));
-        verify(bookingRepository, times(1)).findById(any());
-        verify(userRepository, times(1)).findById(any());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(anyInt());
+        verify(userExistenceCache, times(1)).exists(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByCurrentState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idAndStartBeforeAndEndAfterOrderByBooker_idDesc(anyInt(),
-                any(), any())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("CURRENT", 1);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserBookings("CURRENT", 1, null, 10);
         Assertions.assertNotNull(bookings);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idAndStartBeforeAndEndAfterOrderByBooker_idDesc(anyInt(),
-                any(), any());
-        verify(userRepository, times(1)).findById(any());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getBookerId());
+        Assertions.assertNotNull(filter.getStartBefore());
+        Assertions.assertEquals(filter.getStartBefore(), filter.getEndAfter());
+        Assertions.assertNull(filter.getStartAfter());
+        Assertions.assertNull(filter.getEndBefore());
+        Assertions.assertNull(filter.getStatus());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByPastState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idAndEndBeforeOrderByStartDesc(anyInt(), any())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("PAST", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserBookings("PAST", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idAndEndBeforeOrderByStartDesc(anyInt(), any());
-        verify(userRepository, times(1)).findById(any());
+        BookingFilter filter = captureFilter();
+        Assertions.assertNotNull(filter.getEndBefore());
+        Assertions.assertNull(filter.getStartBefore());
+        Assertions.assertNull(filter.getStartAfter());
+        Assertions.assertNull(filter.getEndAfter());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByFutureState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idAndStartAfterOrderByStartDesc(anyInt(), any())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("FUTURE", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserBookings("FUTURE", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idAndStartAfterOrderByStartDesc(anyInt(), any());
-        verify(userRepository, times(1)).findById(any());
+        BookingFilter filter = captureFilter();
+        Assertions.assertNotNull(filter.getStartAfter());
+        Assertions.assertNull(filter.getStartBefore());
+        Assertions.assertNull(filter.getEndAfter());
+        Assertions.assertNull(filter.getEndBefore());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByWaitingState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idAndStatusOrderByStartDesc(anyInt(), anyString())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("WAITING", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserBookings("WAITING", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idAndStatusOrderByStartDesc(anyInt(), anyString());
-        verify(userRepository, times(1)).findById(any());
+        Assertions.assertEquals("WAITING", captureFilter().getStatus());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByRejectedState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idAndStatusOrderByStartDesc(anyInt(), anyString())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("REJECTED", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserBookings("REJECTED", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idAndStatusOrderByStartDesc(anyInt(), anyString());
-        verify(userRepository, times(1)).findById(any());
+        Assertions.assertEquals("REJECTED", captureFilter().getStatus());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsByAllState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_idOrderByStartDesc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserBookings("ALL", 1);
-        Assertions.assertNotNull(bookings);
-        Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByBooker_idOrderByStartDesc(anyInt());
-        verify(userRepository, times(1)).findById(any());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(List.of(booking));
+        List<BookingDto> bookings = bookingService.getAllUserBookings("ALL", 1, null, 10);
+        Assertions.assertEquals(1, bookings.size());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(BookingFilter.builder()
+                .bookerId(1)
+                .cursor(BookingCursor.decode(null))
+                .limit(10)
+                .build(), filter);
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+    }
+
+    @Test
+    public void getAllUserBookingsWithCursor() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        String cursor = new BookingCursor(start, 5).encode();
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        bookingService.getAllUserBookings("ALL", 1, cursor, 10);
+        Assertions.assertEquals(new BookingCursor(start, 5), captureFilter().getCursor());
+    }
+
+    @Test
+    public void getAllUserBookingsIncorrectCursor() {
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.getAllUserBookings("ALL", 1,
+                "not a cursor", 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    public void getAllUserBookingsIncorrectLimit() {
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        Assert.assertThrows(IllegalArgumentException.class, () -> bookingService.getAllUserBookings("ALL", 1,
+                null, 0));
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     public void getAllUserBookingsByUnknownState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        Assert.assertThrows(UnknownStateException.class, () -> bookingService.getAllUserBookings("UNKNOWN", 1));
-        verify(userRepository, times(1)).findById(any());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        Assert.assertThrows(UnknownStateException.class, () -> bookingService.getAllUserBookings("UNKNOWN", 1, null, 10));
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserBookingsUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
-        Assert.assertThrows(UserNotFoundException.class, () -> bookingService.getAllUserBookings("CURRENT", 1));
-        verify(userRepository, times(1)).findById(any());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
+        Assert.assertThrows(UserNotFoundException.class, () -> bookingService.getAllUserBookings("CURRENT", 1, null, 10));
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserItemsBookingsByCurrentState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInAndStartBeforeAndEndAfterOrderByStartDesc(any(),
-                any(), any())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("CURRENT", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("CURRENT", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInAndStartBeforeAndEndAfterOrderByStartDesc(any(),
-                any(), any());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getOwnerId());
+        Assertions.assertNull(filter.getBookerId());
+        Assertions.assertNotNull(filter.getStartBefore());
+        Assertions.assertEquals(filter.getStartBefore(), filter.getEndAfter());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByPastState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInAndEndBeforeOrderByStartDesc(any(), any())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("PAST", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("PAST", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInAndEndBeforeOrderByStartDesc(any(), any());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getOwnerId());
+        Assertions.assertNotNull(filter.getEndBefore());
+        Assertions.assertNull(filter.getStartBefore());
+        Assertions.assertNull(filter.getStartAfter());
+        Assertions.assertNull(filter.getEndAfter());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByFutureState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInAndStartAfterOrderByStartDesc(any(), any())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("FUTURE", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("FUTURE", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInAndStartAfterOrderByStartDesc(any(), any());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getOwnerId());
+        Assertions.assertNotNull(filter.getStartAfter());
+        Assertions.assertNull(filter.getStartBefore());
+        Assertions.assertNull(filter.getEndAfter());
+        Assertions.assertNull(filter.getEndBefore());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByWaitingState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInAndStatusOrderByStartDesc(any(), anyString())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("WAITING", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("WAITING", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInAndStatusOrderByStartDesc(any(), anyString());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getOwnerId());
+        Assertions.assertEquals("WAITING", filter.getStatus());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByRejectedState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInAndStatusOrderByStartDesc(any(), anyString())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("REJECTED", 1);
-        Assertions.assertNotNull(bookings);
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(new ArrayList<>());
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("REJECTED", 1, null, 10);
         Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInAndStatusOrderByStartDesc(any(), anyString());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        BookingFilter filter = captureFilter();
+        Assertions.assertEquals(1, filter.getOwnerId());
+        Assertions.assertEquals("REJECTED", filter.getStatus());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByAllState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idInOrderByStartDesc(any())).thenReturn(new ArrayList<>());
-        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
-        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("ALL", 1);
-        Assertions.assertNotNull(bookings);
-        Assertions.assertTrue(bookings.isEmpty());
-        verify(bookingRepository, times(1)).findByItem_idInOrderByStartDesc(any());
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        when(bookingRepository.findFiltered(any())).thenReturn(List.of(booking));
+        List<BookingDto> bookings = bookingService.getAllUserItemsBookings("ALL", 1, null, 10);
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertEquals(BookingFilter.builder()
+                .ownerId(1)
+                .cursor(BookingCursor.decode(null))
+                .limit(10)
+                .build(), captureFilter());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     public void getAllUserItemsBookingsByUnknownState() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        Assert.assertThrows(UnknownStateException.class, () -> bookingService.getAllUserItemsBookings("UNKNOWN", 1));
-        verify(userRepository, times(1)).findById(any());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        Assert.assertThrows(UnknownStateException.class, () -> bookingService.getAllUserItemsBookings("UNKNOWN", 1, null, 10));
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllUserItemsBookingsUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
-        Assert.assertThrows(UserNotFoundException.class, () -> bookingService.getAllUserItemsBookings("CURRENT", 1));
-        verify(userRepository, times(1)).findById(any());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
+        Assert.assertThrows(UserNotFoundException.class, () -> bookingService.getAllUserItemsBookings("CURRENT", 1, null, 10));
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+    }
+
+    private BookingFilter captureFilter() {
+        ArgumentCaptor<BookingFilter> captor = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingRepository, times(1)).findFiltered(captor.capture());
+        return captor.getValue();
     }
 
+    private ItemWithUserDto itemWithUser(Item item, User user) {
+        return new ItemWithUserDto() {
+            @Override
+            public Item getItem() {
+                return item;
+            }
+
+            @Override
+            public User getUser() {
+                return user;
+            }
+        };
+    }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournaledSnapshotTest {
+
+    private final JournaledSnapshot<List<Integer>> snapshot = new JournaledSnapshot<>(new ArrayList<>(List.of(1)));
+
+    @Test
+    public void reloadReplacesState() {
+        snapshot.reload(() -> new ArrayList<>(List.of(2, 3)));
+        Assertions.assertEquals(List.of(2, 3), snapshot.read(List::copyOf));
+    }
+
+    @Test
+    public void reloadReplaysChangesMadeDuringLoad() {
+        snapshot.reload(() -> {
+            snapshot.apply(state -> state.add(4));
+            snapshot.apply(state -> state.remove(Integer.valueOf(2)));
+            Assertions.assertEquals(List.of(1, 4), snapshot.read(List::copyOf));
+            return new ArrayList<>(List.of(2, 3));
+        });
+        Assertions.assertEquals(List.of(3, 4), snapshot.read(List::copyOf));
+    }
+
+    @Test
+    public void changesAfterReloadAreNotReplayedByNextReload() {
+        snapshot.reload(() -> new ArrayList<>(List.of(2)));
+        snapshot.apply(state -> state.add(5));
+        snapshot.reload(() -> new ArrayList<>(List.of(2)));
+        Assertions.assertEquals(List.of(2), snapshot.read(List::copyOf));
+    }
+
+    @Test
+    public void failedReloadKeepsStateAndStopsJournal() {
+        IllegalStateException error = new IllegalStateException("db down");
+        Assertions.assertSame(error, Assertions.assertThrows(IllegalStateException.class, () -> snapshot.reload(() -> {
+            snapshot.apply(state -> state.add(4));
+            throw error;
+        })));
+        snapshot.apply(state -> state.add(5));
+        Assertions.assertEquals(List.of(1, 4, 5), snapshot.read(List::copyOf));
+        snapshot.reload(() -> new ArrayList<>(List.of(2)));
+        Assertions.assertEquals(List.of(2), snapshot.read(List::copyOf));
+    }
+}
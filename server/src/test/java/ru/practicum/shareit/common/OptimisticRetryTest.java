@@ -0,0 +1,71 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticRetryTest {
+
+    @InjectMocks
+    private OptimisticRetry optimisticRetry;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void executeRunsOnceWithoutConflict() {
+        Assertions.assertEquals(1, optimisticRetry.execute(User.class, 1, attempts::incrementAndGet));
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    public void executeEvictsAndRetriesStaleEntity() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        Assertions.assertEquals(2, optimisticRetry.execute(User.class, 1, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(User.class, 1);
+            }
+            return attempts.get();
+        }));
+        verify(cache, times(1)).evict(User.class, 1);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    public void executeGivesUpAfterSecondConflict() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> optimisticRetry.execute(User.class, 1, () -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(User.class, 1);
+                }));
+        Assertions.assertEquals(2, attempts.get());
+        verify(cache, times(1)).evict(User.class, 1);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.common;
+
+import org.hibernate.exception.spi.ViolatedConstraintNameExtracter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+public class ShareItPostgreSQLDialectTest {
+
+    private final ViolatedConstraintNameExtracter extracter = new ShareItPostgreSQLDialect().getViolatedConstraintNameExtracter();
+
+    @Test
+    public void extractsExclusionConstraintName() {
+        Assertions.assertEquals("bookings_no_overlap", extracter.extractConstraintName(new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"bookings_no_overlap\"", "23P01")));
+    }
+
+    @Test
+    public void keepsStandardConstraintNames() {
+        Assertions.assertEquals("users_email_key", extracter.extractConstraintName(new SQLException(
+                "ERROR: duplicate key value violates unique constraint \"users_email_key\"", "23505")));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransactionHooksTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void afterCommitRunsImmediatelyWithoutTransaction() {
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void afterCommitWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        Assertions.assertEquals(0, runs.get());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void nowAndAfterCommitRunsTwiceInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionHooks.nowAndAfterCommit(runs::incrementAndGet);
+        Assertions.assertEquals(1, runs.get());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        Assertions.assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void nowAndAfterCommitRunsOnceWithoutTransaction() {
+        TransactionHooks.nowAndAfterCommit(runs::incrementAndGet);
+        Assertions.assertEquals(1, runs.get());
+    }
+}
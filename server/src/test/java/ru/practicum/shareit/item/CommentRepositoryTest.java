@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CommentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private Item first;
+    private Item second;
+
+    @BeforeEach
+    public void setUp() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        User otherOwner = em.persist(new User(null, "other", "other@mail.ru"));
+        User author = em.persist(new User(null, "author", "author@mail.ru"));
+        User secondAuthor = em.persist(new User(null, "second", "second@mail.ru"));
+        first = em.persist(item("first", owner));
+        second = em.persist(item("second", owner));
+        Item foreign = em.persist(item("foreign", otherOwner));
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        em.persist(new Comment(null, "first", first, author, created));
+        em.persist(new Comment(null, "second", first, secondAuthor, created.plusHours(1)));
+        em.persist(new Comment(null, "third", second, author, created.plusHours(2)));
+        em.persist(new Comment(null, "foreign", foreign, author, created.plusHours(3)));
+        em.flush();
+        em.clear();
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findAllByItemOwnerRunsOneStatement() {
+        List<ItemCommentDto> comments = commentRepository.findAllByItemOwner(owner.getId());
+        Assertions.assertEquals(List.of("third", "second", "first"), comments.stream()
+                .map(ItemCommentDto::getText)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(second.getId(), first.getId(), first.getId()), comments.stream()
+                .map(ItemCommentDto::getItemId)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("author", "second", "author"), comments.stream()
+                .map(ItemCommentDto::getAuthorName)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void findAllByItemOwnerWithoutComments() {
+        User lonely = em.persist(new User(null, "lonely", "lonely@mail.ru"));
+        em.persist(item("lonely", lonely));
+        em.flush();
+        statistics.clear();
+        Assertions.assertTrue(commentRepository.findAllByItemOwner(lonely.getId()).isEmpty());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Item item(String name, User itemOwner) {
+        return Item.builder()
+                .name(name)
+                .description("description")
+                .available(true)
+                .owner(itemOwner.getId())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.storage.DatabaseItemSearcher;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseItemSearcherTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:shareit";
+    private static final String POSTGRES_URL = "jdbc:postgresql://localhost:5432/shareit";
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final ItemDto last = ItemDto.builder().id(7).name("Дрель ударная").description("description").build();
+
+    @Test
+    public void searchOnH2KeepsIdOrder() {
+        DatabaseItemSearcher searcher = new DatabaseItemSearcher(itemRepository, H2_URL);
+        searcher.search("др_ль", false, new ItemSearchCursor(ItemSearchCursor.NAME_PREFIX, 5), 10);
+        verify(itemRepository, times(1)).search("др_ль", "др!_ль%", "%др!_ль%", ItemSearchCursor.NAME_PREFIX, 5, 10);
+        Assertions.assertEquals(ItemSearchCursor.of(last, "дрель"), searcher.cursorAfter(last, "дрель"));
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    public void fuzzySearchOnH2IsRejected() {
+        DatabaseItemSearcher searcher = new DatabaseItemSearcher(itemRepository, H2_URL);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> searcher.search("дрил", true, ItemSearchCursor.decode(null), 10));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    public void searchOnPostgresPagesBySimilarity() {
+        DatabaseItemSearcher searcher = new DatabaseItemSearcher(itemRepository, POSTGRES_URL);
+        ItemSearchCursor after = new ItemSearchCursor(ItemSearchCursor.NAME_CONTAINS, 0.75, 5);
+        searcher.search("дрель", false, after, 10);
+        searcher.search("дрил", true, after, 10);
+        verify(itemRepository, times(1)).scoredSearch("дрель", "дрель%", "%дрель%", ItemSearchCursor.NAME_CONTAINS,
+                0.75, 5, 10);
+        verify(itemRepository, times(1)).fuzzySearch("дрил", "дрил%", "%дрил%", ItemSearchCursor.NAME_CONTAINS,
+                0.75, 5, 10);
+    }
+
+    @Test
+    public void cursorOnPostgresCarriesSimilarity() {
+        DatabaseItemSearcher searcher = new DatabaseItemSearcher(itemRepository, POSTGRES_URL);
+        when(itemRepository.nameSimilarity(any(), any())).thenReturn(0.3333333432674408);
+        ItemSearchCursor cursor = searcher.cursorAfter(last, "дрель");
+        Assertions.assertEquals(new ItemSearchCursor(ItemSearchCursor.NAME_PREFIX, 0.3333333432674408, 7), cursor);
+        Assertions.assertEquals(cursor, ItemSearchCursor.decode(cursor.encode()));
+        verify(itemRepository, times(1)).nameSimilarity("дрель", "Дрель ударная");
+    }
+}
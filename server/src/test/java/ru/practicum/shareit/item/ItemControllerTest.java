@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,6 +15,7 @@ import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
 
@@ -21,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -154,6 +157,47 @@ public class ItemControllerTest {
         verify(itemService, times(1)).getItem(anyInt(), anyInt());
     }
 
+    @Test
+    public void getItemNotModified() throws Exception {
+        ItemDto itemDto = ItemDto.builder()
+                .id(1)
+                .name("name")
+                .description("description")
+                .available(true)
+                .comments(new ArrayList<>())
+                .build();
+        when(itemService.getItemEtag(1, 1)).thenReturn("\"v1\"");
+        when(itemService.getItem(anyInt(), anyInt())).thenReturn(itemDto);
+        String etag = mvc.perform(get("/items/" + 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Vary", Matchers.containsString("X-Sharer-User-Id")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        Assertions.assertNotNull(etag);
+        mvc.perform(get("/items/" + 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-None-Match", etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Assertions.assertEquals("\"v1\"", etag);
+        verify(itemService, times(2)).getItemEtag(1, 1);
+        verify(itemService, times(1)).getItem(anyInt(), anyInt());
+    }
+
+    @Test
+    public void getItemsWithoutEtag() throws Exception {
+        when(itemService.getItems(anyInt())).thenReturn(new ArrayList<>());
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("ETag"));
+    }
+
     @Test
     public void getItems() throws Exception {
         when(itemService.getItems(anyInt())).thenReturn(new ArrayList<>());
@@ -170,15 +214,56 @@ public class ItemControllerTest {
 
     @Test
     public void searchByText() throws Exception {
-        when(itemService.searchByText(anyString())).thenReturn(new ArrayList<>());
+        when(itemService.searchByText(anyString(), anyBoolean(), any(), anyInt())).thenReturn(new ArrayList<>());
         mvc.perform(get("/items/search")
                         .param("text", "test text")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
                 .andExpect(MockMvcResultMatchers.content().json("[]")
                 );
-        verify(itemService, times(1)).searchByText(anyString());
+        verify(itemService, times(1)).searchByText(eq("test text"), eq(false), isNull(), eq(100));
+    }
+
+    @Test
+    public void searchByTextFullPage() throws Exception {
+        ItemDto itemDto = ItemDto.builder()
+                .id(7)
+                .name("test text")
+                .description("description")
+                .available(true)
+                .comments(new ArrayList<>())
+                .build();
+        String cursor = new ItemSearchCursor(ItemSearchCursor.NAME_PREFIX, 0.5, 7).encode();
+        when(itemService.searchByText(anyString(), anyBoolean(), any(), anyInt())).thenReturn(List.of(itemDto));
+        when(itemService.nextSearchCursor(itemDto, "test")).thenReturn(cursor);
+        mvc.perform(get("/items/search")
+                        .param("text", "test")
+                        .param("fuzzy", "true")
+                        .param("limit", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", cursor))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", Matchers.is(7), Integer.class)
+                );
+        verify(itemService, times(1)).searchByText("test", true, null, 1);
+    }
+
+    @Test
+    public void suggest() throws Exception {
+        when(itemService.suggest(anyString(), anyInt())).thenReturn(List.of("Дрель", "Дрезина"));
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "др")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]", Matchers.is("Дрель")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1]", Matchers.is("Дрезина"))
+                );
+        verify(itemService, times(1)).suggest("др", 10);
     }
 }
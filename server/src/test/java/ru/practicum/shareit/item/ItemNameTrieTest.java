@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemNameTrieTest {
+
+    @InjectMocks
+    private ItemNameTrie itemNameTrie;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAll()).thenReturn(List.of(
+                new Item(1, "Дрель", "Простая дрель", true, 1, null),
+                new Item(2, "Дрель ударная", "Мощная", true, 1, null),
+                new Item(3, "дрель", "Аккумуляторная", true, 2, null),
+                new Item(4, "Дрезина", "Ручная", true, 2, null),
+                new Item(5, "Дрова", "Березовые", false, 2, null)));
+        itemNameTrie.load();
+    }
+
+    @Test
+    public void suggestByPopularity() {
+        Assertions.assertEquals(List.of("Дрель", "Дрезина", "Дрель ударная"), itemNameTrie.suggest("ДР", 10));
+        Assertions.assertEquals(List.of("Дрель"), itemNameTrie.suggest("др", 1));
+    }
+
+    @Test
+    public void suggestInsideCompressedEdge() {
+        Assertions.assertEquals(List.of("Дрель ударная"), itemNameTrie.suggest("дрель у", 10));
+        Assertions.assertEquals(List.of("Дрезина"), itemNameTrie.suggest("дрез", 10));
+        Assertions.assertTrue(itemNameTrie.suggest("дрв", 10).isEmpty());
+    }
+
+    @Test
+    public void suggestSkipsUnavailableItems() {
+        Assertions.assertTrue(itemNameTrie.suggest("дров", 10).isEmpty());
+        itemNameTrie.add(new Item(5, "Дрова", "Березовые", true, 2, null));
+        Assertions.assertEquals(List.of("Дрова"), itemNameTrie.suggest("дров", 10));
+    }
+
+    @Test
+    public void loadKeepsChangesMadeDuringLoad() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            itemNameTrie.add(new Item(6, "Пила", "Ручная пила", true, 3, null));
+            itemNameTrie.removeOwner(2);
+            return List.of(
+                    new Item(1, "Дрель", "Простая дрель", true, 1, null),
+                    new Item(4, "Дрезина", "Ручная", true, 2, null));
+        });
+        itemNameTrie.load();
+        Assertions.assertEquals(List.of("Пила"), itemNameTrie.suggest("пи", 10));
+        Assertions.assertEquals(List.of("Дрель"), itemNameTrie.suggest("др", 10));
+    }
+
+    @Test
+    public void addAndUpdateItem() {
+        itemNameTrie.add(new Item(1, "Пила", "Ручная пила", true, 1, null));
+        Assertions.assertEquals(List.of("Пила"), itemNameTrie.suggest("пи", 10));
+        Assertions.assertEquals(List.of("Дрезина", "Дрель", "Дрель ударная"), itemNameTrie.suggest("др", 10));
+
+        itemNameTrie.add(new Item(3, "Дрель", "Аккумуляторная", false, 2, null));
+        Assertions.assertEquals(List.of("Дрезина", "Дрель ударная"), itemNameTrie.suggest("др", 10));
+    }
+
+    @Test
+    public void removeOwner() {
+        itemNameTrie.removeOwner(2);
+        Assertions.assertEquals(List.of("Дрель", "Дрель ударная"), itemNameTrie.suggest("др", 10));
+        Assertions.assertTrue(itemNameTrie.suggest("дрез", 10).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemWithRenterDto;
+import ru.practicum.shareit.item.dto.ItemWithUserDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ItemRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User renter;
+    private User rejected;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        renter = em.persist(new User(null, "renter", "renter@mail.ru"));
+        rejected = em.persist(new User(null, "rejected", "rejected@mail.ru"));
+        item = em.persist(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        em.persist(new Booking(null, start, start.plusHours(1), item, renter, BookingStatus.APPROVED.name()));
+        em.persist(new Booking(null, start, start.plusHours(1), item, rejected, BookingStatus.REJECTED.name()));
+        em.flush();
+        em.clear();
+        statistics = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findWithUserRunsOneStatement() {
+        ItemWithUserDto found = itemRepository.findWithUser(item.getId(), renter.getId()).orElseThrow();
+        Assertions.assertEquals(owner.getId(), found.getItem().getOwner());
+        Assertions.assertEquals("renter", found.getUser().getName());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findWithUserMissing() {
+        Assertions.assertTrue(itemRepository.findWithUser(item.getId(), -1).isEmpty());
+        Assertions.assertTrue(itemRepository.findWithUser(-1, renter.getId()).isEmpty());
+    }
+
+    @Test
+    public void findWithRenterRunsOneStatement() {
+        ItemWithRenterDto found = findWithRenter(renter).orElseThrow();
+        Assertions.assertTrue(found.isRentedByUser());
+        Assertions.assertEquals("item", found.getItem().getName());
+        Assertions.assertEquals("renter", found.getUser().getName());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findWithRenterSkipsRejectedAndForeignBookings() {
+        Assertions.assertFalse(findWithRenter(rejected).orElseThrow().isRentedByUser());
+        Assertions.assertFalse(findWithRenter(owner).orElseThrow().isRentedByUser());
+    }
+
+    @Test
+    public void findWithRenterDoesNotLoadBookings() {
+        Item rented = em.find(Item.class, item.getId());
+        User frequentRenter = em.find(User.class, renter.getId());
+        LocalDateTime start = LocalDateTime.now().minusDays(100);
+        for (int i = 0; i < 50; i++) {
+            em.persist(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1), rented, frequentRenter,
+                    BookingStatus.APPROVED.name()));
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+        Assertions.assertTrue(findWithRenter(renter).orElseThrow().isRentedByUser());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void versionIncrementsOnUpdate() {
+        Assertions.assertEquals(0L, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+        em.find(Item.class, item.getId()).setName("updated");
+        em.flush();
+        em.clear();
+        Assertions.assertEquals(1L, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    private Optional<ItemWithRenterDto> findWithRenter(User user) {
+        return itemRepository.findWithRenter(item.getId(), user.getId(), LocalDateTime.now(),
+                BookingStatus.REJECTED.name());
+    }
+}
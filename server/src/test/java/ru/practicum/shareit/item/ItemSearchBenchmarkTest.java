@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.LatencyBenchmark;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("benchmark")
+public class ItemSearchBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.search.items", 1_000_000);
+    private static final String[] NOUNS = {"дрель", "отвертка", "пила", "молоток", "лестница", "палатка", "велосипед",
+            "самокат", "рюкзак", "шуруповерт", "перфоратор", "болгарка", "краскопульт", "пылесос", "удочка", "спальник",
+            "котелок", "гамак", "фонарь", "домкрат", "компрессор", "стремянка", "тачка", "газонокосилка", "триммер",
+            "мангал"};
+    private static final String[] ADJECTIVES = {"аккумуляторная", "сетевая", "ручная", "большая", "складная",
+            "туристическая", "новая", "профессиональная", "детская", "легкая", "мощная", "компактная"};
+    private static final String[] QUERIES = {"дрель", "пила", "велосипед", "фонарь", "ручная", "молоток"};
+    private static final String[] TYPOS = {"дрэль", "атвертка", "молаток", "пелосипед", "палатко", "шуруповерд",
+            "фанарь", "гамок"};
+
+    private static ItemSearchIndex itemSearchIndex;
+
+    @BeforeAll
+    static void setUp() {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int id = 1; id <= ITEMS; id++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            items.add(new Item(id, noun + " " + adjective + " " + id, adjective + " " + noun + " в аренду",
+                    random.nextInt(10) > 0, id % 1000 + 1, null));
+        }
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll()).thenReturn(items);
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+        itemSearchIndex.load();
+    }
+
+    @Test
+    public void searchStaysWithinBudget() {
+        LatencyBenchmark benchmark = LatencyBenchmark.run("search, " + ITEMS + " items", 500, 2000,
+                i -> itemSearchIndex.search(QUERIES[i % QUERIES.length], false, ItemSearchCursor.decode(null), 100));
+        Assertions.assertTrue(benchmark.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.search", 50));
+    }
+
+    @Test
+    public void fuzzySearchStaysWithinBudget() {
+        LatencyBenchmark benchmark = LatencyBenchmark.run("fuzzy search, " + ITEMS + " items", 500, 2000,
+                i -> itemSearchIndex.search(TYPOS[i % TYPOS.length], true, ItemSearchCursor.decode(null), 100));
+        Assertions.assertTrue(benchmark.percentileMillis(99) <= LatencyBenchmark.budgetMillis("budget.fuzzy-search", 100));
+    }
+}
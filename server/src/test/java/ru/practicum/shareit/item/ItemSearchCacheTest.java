@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ItemSearchCacheTest {
+
+    private final Item drill = new Item(1, "Дрель", "Простая дрель", true, 1, null);
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchCache = new ItemSearchCache((text, fuzzy, after, limit) -> List.of(), meterRegistry, 100,
+                Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void getCachesByNormalizedQuery() {
+        Assertions.assertEquals(1, search("Дрель").size());
+        Assertions.assertEquals(1, search("дРЕЛЬ").size());
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void getKeepsPagesApart() {
+        search("дрель");
+        itemSearchCache.get("дрель", false, new ItemSearchCursor(ItemSearchCursor.EXACT_NAME, 1), 10, this::load);
+        itemSearchCache.get("дрель", true, ItemSearchCursor.decode(null), 10, this::load);
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidateMatchingItem() {
+        search("дрель");
+        itemSearchCache.invalidate(null, new Item(2, "Дрель ударная", "Мощная", true, 1, null));
+        search("дрель");
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateKeepsUnrelatedQueries() {
+        search("дрель");
+        itemSearchCache.invalidate(null, new Item(2, "Пила", "Ручная", true, 1, null));
+        itemSearchCache.invalidate(null, new Item(3, "Дрель ударная", "Мощная", false, 1, null));
+        search("дрель");
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void invalidateByPreviousState() {
+        search("дрель");
+        itemSearchCache.invalidate(drill, new Item(1, "Пила", "Ручная", true, 1, null));
+        search("дрель");
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateFuzzyQueries() {
+        itemSearchCache.get("дрэль", true, ItemSearchCursor.decode(null), 10, this::load);
+        itemSearchCache.invalidate(null, new Item(2, "Дрели", "Набор", true, 1, null));
+        itemSearchCache.get("дрэль", true, ItemSearchCursor.decode(null), 10, this::load);
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateAll() {
+        search("дрель");
+        itemSearchCache.invalidateAll();
+        search("дрель");
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private List<ItemDto> search(String text) {
+        return itemSearchCache.get(text, false, ItemSearchCursor.decode(null), 10, this::load);
+    }
+
+    private List<ItemDto> load() {
+        loads.incrementAndGet();
+        return List.of(ItemMapper.toItemDto(drill));
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAll()).thenReturn(List.of(
+                new Item(1, "Дрель", "Простая дрель", true, 1, null),
+                new Item(2, "Отвертка", "Аккумуляторная отвертка", true, 1, 10),
+                new Item(3, "Дрель ударная", "Мощная", false, 2, null),
+                new Item(4, "Клей", "Клей для дерева", true, 2, null)));
+        itemSearchIndex.load();
+    }
+
+    @Test
+    public void searchBySubstringIgnoringCase() {
+        Assertions.assertEquals(List.of(1), ids(search("дРеЛ")));
+        Assertions.assertEquals(List.of(2), ids(search("аккумулятор")));
+        Assertions.assertEquals(List.of(4), ids(search("ДЕРЕВ")));
+    }
+
+    @Test
+    public void searchSkipsUnavailableItems() {
+        Assertions.assertEquals(List.of(1), ids(search("Дрель")));
+        Assertions.assertTrue(search("ударная").isEmpty());
+    }
+
+    @Test
+    public void searchShortQuery() {
+        Assertions.assertEquals(List.of(2, 4), ids(search("ЕР")));
+    }
+
+    @Test
+    public void searchRequiresContiguousMatch() {
+        Assertions.assertTrue(search("дрельотвертка").isEmpty());
+        Assertions.assertTrue(search("дрель простая").isEmpty());
+    }
+
+    @Test
+    public void loadKeepsChangesMadeDuringLoad() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            itemSearchIndex.add(new Item(5, "Пила", "Ручная пила", true, 3, null));
+            itemSearchIndex.removeOwner(2);
+            return List.of(
+                    new Item(1, "Дрель", "Простая дрель", true, 1, null),
+                    new Item(4, "Клей", "Клей для дерева", true, 2, null));
+        });
+        itemSearchIndex.load();
+        Assertions.assertEquals(List.of(5), ids(search("пила")));
+        Assertions.assertTrue(search("клей").isEmpty());
+        Assertions.assertEquals(List.of(1), ids(search("дрель")));
+    }
+
+    @Test
+    public void addAndUpdateItem() {
+        itemSearchIndex.add(new Item(5, "Пила", "Ручная пила", true, 3, null));
+        Assertions.assertEquals(List.of(5), ids(search("пила")));
+
+        itemSearchIndex.add(new Item(5, "Ножовка", "Ручная", true, 3, null));
+        Assertions.assertTrue(search("пила").isEmpty());
+        Assertions.assertEquals(List.of(5), ids(search("ножов")));
+
+        itemSearchIndex.add(new Item(3, "Дрель ударная", "Мощная", true, 2, null));
+        Assertions.assertEquals(List.of(1, 3), ids(search("дрель")));
+    }
+
+    @Test
+    public void removeOwner() {
+        itemSearchIndex.removeOwner(2);
+        Assertions.assertTrue(search("клей").isEmpty());
+        Assertions.assertEquals(List.of(1), ids(search("дрель")));
+    }
+
+    @Test
+    public void detachRequests() {
+        itemSearchIndex.detachRequests(List.of(10));
+        Assertions.assertNull(search("отвертка").get(0).getRequest());
+    }
+
+    @Test
+    public void searchRanksByName() {
+        itemSearchIndex.add(new Item(5, "Клей", "Столярный", true, 3, null));
+        itemSearchIndex.add(new Item(6, "Суперклей", "Быстрый", true, 3, null));
+        itemSearchIndex.add(new Item(7, "Клей-карандаш", "Канцелярия", true, 3, null));
+        Assertions.assertEquals(List.of(4, 5, 7, 6), ids(search("клей")));
+    }
+
+    @Test
+    public void searchPages() {
+        itemSearchIndex.add(new Item(5, "Клей", "Столярный", true, 3, null));
+        itemSearchIndex.add(new Item(6, "Суперклей", "Быстрый", true, 3, null));
+        itemSearchIndex.add(new Item(7, "Клей-карандаш", "Канцелярия", true, 3, null));
+        List<Item> firstPage = itemSearchIndex.search("клей", false, ItemSearchCursor.decode(null), 2);
+        Assertions.assertEquals(List.of(4, 5), ids(firstPage));
+        ItemSearchCursor cursor = new ItemSearchCursor(ItemSearchCursor.rankOf("Клей", "Клей для дерева", "клей"), 5);
+        Assertions.assertEquals(List.of(7, 6), ids(itemSearchIndex.search("клей", false, cursor, 2)));
+    }
+
+    @Test
+    public void fuzzySearchToleratesTypos() {
+        Assertions.assertEquals(List.of(1), ids(fuzzySearch("дрэль")));
+        Assertions.assertEquals(List.of(1), ids(fuzzySearch("дрелб")));
+        Assertions.assertEquals(List.of(2), ids(fuzzySearch("атвертка")));
+        Assertions.assertEquals(List.of(2), ids(fuzzySearch("отвретка")));
+        Assertions.assertTrue(search("дрэль").isEmpty());
+    }
+
+    @Test
+    public void fuzzySearchKeepsExactMatchesFirst() {
+        itemSearchIndex.add(new Item(5, "Дрели", "Набор", true, 3, null));
+        itemSearchIndex.add(new Item(6, "Дрель", "Сетевая", true, 3, null));
+        Assertions.assertEquals(List.of(1, 6, 5), ids(fuzzySearch("дрель")));
+    }
+
+    @Test
+    public void fuzzySearchRanksFuzzyMatchesLast() {
+        itemSearchIndex.add(new Item(5, "Клей", "Столярный", true, 3, null));
+        itemSearchIndex.add(new Item(6, "Суперклей", "Быстрый", true, 3, null));
+        itemSearchIndex.add(new Item(7, "Клей-карандаш", "Канцелярия", true, 3, null));
+        itemSearchIndex.add(new Item(8, "Кисть", "Кисть под клей", true, 3, null));
+        itemSearchIndex.add(new Item(9, "Клэй", "Пластилин", true, 3, null));
+        Assertions.assertEquals(List.of(4, 5, 7, 6, 8, 9), ids(fuzzySearch("клей")));
+        Assertions.assertEquals(ItemSearchCursor.EXACT_NAME, ItemSearchCursor.rankOf("Клей", "Столярный", "клей"));
+        Assertions.assertEquals(ItemSearchCursor.NAME_PREFIX, ItemSearchCursor.rankOf("Клей-карандаш", "", "клей"));
+        Assertions.assertEquals(ItemSearchCursor.NAME_CONTAINS, ItemSearchCursor.rankOf("Суперклей", "", "клей"));
+        Assertions.assertEquals(ItemSearchCursor.DESCRIPTION_CONTAINS,
+                ItemSearchCursor.rankOf("Кисть", "Кисть под клей", "клей"));
+        Assertions.assertEquals(ItemSearchCursor.FUZZY, ItemSearchCursor.rankOf("Клэй", "Пластилин", "клей"));
+    }
+
+    @Test
+    public void fuzzySearchPagesPastDescriptionMatches() {
+        itemSearchIndex.add(new Item(8, "Кисть", "Кисть под клей", true, 3, null));
+        itemSearchIndex.add(new Item(9, "Клэй", "Пластилин", true, 3, null));
+        ItemSearchCursor cursor = new ItemSearchCursor(ItemSearchCursor.DESCRIPTION_CONTAINS, 8);
+        Assertions.assertEquals(List.of(9), ids(itemSearchIndex.search("клей", true, cursor, 10)));
+    }
+
+    @Test
+    public void fuzzySearchBoundsDistance() {
+        Assertions.assertTrue(fuzzySearch("друг").isEmpty());
+        Assertions.assertTrue(fuzzySearch("кй").isEmpty());
+        Assertions.assertEquals(List.of(4), ids(fuzzySearch("клей")));
+    }
+
+    @Test
+    public void fuzzySearchAllTokens() {
+        itemSearchIndex.add(new Item(5, "Дрель аккумуляторная", "Без провода", true, 3, null));
+        Assertions.assertEquals(List.of(5), ids(fuzzySearch("дрэль акумуляторная")));
+    }
+
+    @Test
+    public void fuzzySearchAfterUpdate() {
+        itemSearchIndex.add(new Item(1, "Перфоратор", "Простой", true, 1, null));
+        Assertions.assertTrue(fuzzySearch("дрэль").isEmpty());
+        Assertions.assertEquals(List.of(1), ids(fuzzySearch("перфаратор")));
+    }
+
+    @Test
+    public void matchesItem() {
+        Item drill = new Item(6, "Дрель", "Простая", true, 3, null);
+        Assertions.assertTrue(itemSearchIndex.matches(drill, "ДРЕЛ", false));
+        Assertions.assertTrue(itemSearchIndex.matches(drill, "прост", false));
+        Assertions.assertFalse(itemSearchIndex.matches(drill, "дрэль", false));
+        Assertions.assertTrue(itemSearchIndex.matches(drill, "дрэль", true));
+        Assertions.assertFalse(itemSearchIndex.matches(drill, "пила", true));
+    }
+
+    private List<Item> search(String text) {
+        return itemSearchIndex.search(text, false, ItemSearchCursor.decode(null), 100);
+    }
+
+    private List<Item> fuzzySearch(String text) {
+        return itemSearchIndex.search(text, true, ItemSearchCursor.decode(null), 100);
+    }
+
+    private List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -8,26 +8,46 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingsVersionDto;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.dto.GetItemBookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.service.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.common.OptimisticRetry;
 import ru.practicum.shareit.exception.IncorrectItemOwnerIdException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemNotRentedByUserException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemWithRenterDto;
+import ru.practicum.shareit.item.dto.VersionDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearcher;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -40,11 +60,21 @@ public class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private ItemSearcher itemSearcher;
+    @Mock
+    private ItemNameTrie itemNameTrie;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private OptimisticRetry optimisticRetry;
     private User user;
     private Item item;
 
@@ -63,8 +93,8 @@ public class ItemServiceImplTest {
 
     @Test
     public void addItem() {
-        when(itemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(itemRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         ItemDto itemDto = new ItemDto(
                 1,
                 "name",
@@ -77,13 +107,62 @@ public class ItemServiceImplTest {
         );
         ItemDto addedItem = itemService.addItem(itemDto, 1);
         Assertions.assertNotNull(addedItem);
-        verify(userRepository, times(1)).findById(any());
-        verify(itemRepository, times(1)).save(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verify(itemRepository, times(1)).saveAndFlush(any());
+        verify(itemSearcher, times(1)).add(any());
+        verify(itemNameTrie, times(1)).add(any());
+        verify(itemSearchCache, times(1)).invalidate(isNull(), any());
+    }
+
+    @Test
+    public void addItemIndexedAfterCommit() {
+        when(itemRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        ItemDto itemDto = new ItemDto(
+                1,
+                "name",
+                "description",
+                true,
+                null,
+                null,
+                null,
+                null
+        );
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.addItem(itemDto, 1);
+            verify(itemSearcher, never()).add(any());
+            verify(itemNameTrie, never()).add(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(itemSearcher, times(1)).add(any());
+        verify(itemNameTrie, times(1)).add(any());
+    }
+
+    @Test
+    public void addItemRolledBack() {
+        when(itemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk violation"));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
+        ItemDto itemDto = new ItemDto(
+                1,
+                "name",
+                "description",
+                true,
+                null,
+                null,
+                null,
+                99
+        );
+        Assert.assertThrows(DataIntegrityViolationException.class, () -> itemService.addItem(itemDto, 1));
+        verify(itemSearcher, never()).add(any());
+        verify(itemNameTrie, never()).add(any());
     }
 
     @Test
     public void addItemUserNotExist() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userExistenceCache.existsInDatabase(anyInt())).thenReturn(false);
         ItemDto itemDto = new ItemDto(
                 1,
                 "name",
@@ -95,7 +174,7 @@ public class ItemServiceImplTest {
                 null
         );
         Assert.assertThrows(UserNotFoundException.class, () -> itemService.addItem(itemDto, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
@@ -105,14 +184,19 @@ public class ItemServiceImplTest {
                 "description",
                 true
         );
+        when(optimisticRetry.execute(eq(Item.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(itemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(itemRepository.findById(1)).thenReturn(Optional.of(item));
         ItemDto itemDto = itemService.updateItem(itemUpdateDto, 1, 1);
         Assertions.assertNotNull(itemDto);
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
         verify(itemRepository, times(1)).findById(any());
         verify(itemRepository, times(1)).save(any());
+        verify(itemSearcher, times(1)).add(item);
+        verify(itemNameTrie, times(1)).add(item);
+        verify(itemSearchCache, times(1)).invalidate(any(), eq(item));
     }
 
     @Test
@@ -122,10 +206,12 @@ public class ItemServiceImplTest {
                 "description",
                 true
         );
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(optimisticRetry.execute(eq(Item.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        when(userExistenceCache.existsInDatabase(anyInt())).thenReturn(false);
         when(itemRepository.findById(1)).thenReturn(Optional.of(item));
         Assert.assertThrows(UserNotFoundException.class, () -> itemService.updateItem(itemUpdateDto, 1, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
@@ -135,6 +221,8 @@ public class ItemServiceImplTest {
                 "description",
                 true
         );
+        when(optimisticRetry.execute(eq(Item.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(itemRepository.findById(1)).thenReturn(Optional.empty());
         Assert.assertThrows(ItemNotFoundException.class, () -> itemService.updateItem(itemUpdateDto, 1, 1));
     }
@@ -146,22 +234,26 @@ public class ItemServiceImplTest {
                 "description",
                 true
         );
+        when(optimisticRetry.execute(eq(Item.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(userRepository.findById(2)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(2)).thenReturn(true);
         Assert.assertThrows(IncorrectItemOwnerIdException.class, () -> itemService.updateItem(itemUpdateDto, 2, 1));
     }
 
     @Test
     public void getItem() {
         when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItem_idAndStartBeforeOrderByStartDesc(anyInt(), any())).thenReturn(new ArrayList<>());
-        when(bookingRepository.findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(anyInt(), any(), anyString())).thenReturn(new ArrayList<>());
+        when(bookingRepository.findLastBookings(anyInt(), any(), any())).thenReturn(List.of(new GetItemBookingDto(1, 2)));
+        when(bookingRepository.findNextBookings(anyInt(), any(), anyString(), any())).thenReturn(new ArrayList<>());
         when(commentRepository.findByItem_idOrderByCreatedDesc(anyInt())).thenReturn(new ArrayList<>());
         ItemDto itemDto = itemService.getItem(1, 1);
         Assertions.assertNotNull(itemDto);
+        Assertions.assertEquals(1, itemDto.getLastBooking().getId());
+        Assertions.assertNull(itemDto.getNextBooking());
         verify(itemRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).findByItem_idAndStartBeforeOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, times(1)).findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(anyInt(), any(), anyString());
+        verify(bookingRepository, times(1)).findLastBookings(anyInt(), any(), eq(PageRequest.of(0, 1)));
+        verify(bookingRepository, times(1)).findNextBookings(anyInt(), any(), anyString(), eq(PageRequest.of(0, 1)));
         verify(commentRepository, times(1)).findByItem_idOrderByCreatedDesc(anyInt());
     }
 
@@ -172,12 +264,58 @@ public class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(any());
     }
 
+    @Test
+    public void getItemEtagNotExist() {
+        when(itemRepository.findById(1)).thenReturn(Optional.empty());
+        Assertions.assertNull(itemService.getItemEtag(1, 1));
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
+    @Test
+    public void getItemEtagChangesWhenBookingStarts() {
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(commentRepository.findVersionByItem(1)).thenReturn(new VersionDto(0L, null, null));
+        when(bookingRepository.findVersionByItem(eq(1), any(), eq(BookingStatus.REJECTED.name())))
+                .thenReturn(new BookingsVersionDto(1L, 5, 0L, 0L))
+                .thenReturn(new BookingsVersionDto(1L, 5, 1L, 0L));
+        String etag = itemService.getItemEtag(1, 1);
+        Assertions.assertNotNull(etag);
+        Assertions.assertNotEquals(etag, itemService.getItemEtag(1, 1));
+    }
+
+    @Test
+    public void getItemEtagIgnoresBookingsForNotOwner() {
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(commentRepository.findVersionByItem(1)).thenReturn(new VersionDto(0L, null, null));
+        Assertions.assertEquals(itemService.getItemEtag(1, 2), itemService.getItemEtag(1, 3));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    public void getItemEtagChangesWithComments() {
+        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
+        when(commentRepository.findVersionByItem(1))
+                .thenReturn(new VersionDto(0L, null, null))
+                .thenReturn(new VersionDto(1L, 3, 0L));
+        Assertions.assertNotEquals(itemService.getItemEtag(1, 2), itemService.getItemEtag(1, 2));
+    }
+
     @Test
     public void getItemsEmpty() {
         when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         List<ItemDto> items = itemService.getItems(1);
         Assertions.assertTrue(items.isEmpty());
         verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
+    @Test
+    public void getItemsUserNotExist() {
+        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(new ArrayList<>());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
+        Assert.assertThrows(UserNotFoundException.class, () -> itemService.getItems(1));
+        verifyNoInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -192,79 +330,218 @@ public class ItemServiceImplTest {
         );
         List<Item> itemsList = List.of(item, item2);
         when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(itemsList);
-        when(bookingRepository.findByItem_idAndStartBeforeOrderByStartDesc(anyInt(), any())).thenReturn(new ArrayList<>());
-        when(bookingRepository.findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(anyInt(), any(), anyString())).thenReturn(new ArrayList<>());
-        when(commentRepository.findByItem_idOrderByCreatedDesc(anyInt())).thenReturn(new ArrayList<>());
+        when(bookingRepository.findLastBookingsByItemOwner(anyInt(), any())).thenReturn(new ArrayList<>());
+        when(bookingRepository.findNextBookingsByItemOwner(anyInt(), any(), anyString())).thenReturn(new ArrayList<>());
+        when(commentRepository.findAllByItemOwner(anyInt())).thenReturn(new ArrayList<>());
         List<ItemDto> items = itemService.getItems(1);
         Assertions.assertFalse(items.isEmpty());
         verify(itemRepository, times(1)).findAllByOwnerOrderByIdAsc(anyInt());
-        verify(bookingRepository, times(itemsList.size())).findByItem_idAndStartBeforeOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, times(itemsList.size())).findByItem_idAndStartAfterAndStatusNotOrderByStartAsc(anyInt(), any(), anyString());
-        verify(commentRepository, times(itemsList.size())).findByItem_idOrderByCreatedDesc(anyInt());
+        verify(bookingRepository, times(1)).findLastBookingsByItemOwner(anyInt(), any());
+        verify(bookingRepository, times(1)).findNextBookingsByItemOwner(anyInt(), any(), anyString());
+        verify(commentRepository, times(1)).findAllByItemOwner(anyInt());
+        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
+    }
+
+    @Test
+    public void getItemsWithBookingsAndComments() {
+        Item item2 = new Item(
+                2,
+                "name2",
+                "description2",
+                true,
+                1,
+                null
+        );
+        LocalDateTime created = LocalDateTime.now();
+        when(itemRepository.findAllByOwnerOrderByIdAsc(anyInt())).thenReturn(List.of(item, item2));
+        when(bookingRepository.findLastBookingsByItemOwner(anyInt(), any())).thenReturn(List.of(
+                new ItemBookingDto(1, 10, 3),
+                new ItemBookingDto(1, 11, 4)));
+        when(bookingRepository.findNextBookingsByItemOwner(anyInt(), any(), anyString())).thenReturn(List.of(
+                new ItemBookingDto(2, 12, 5)));
+        when(commentRepository.findAllByItemOwner(anyInt())).thenReturn(List.of(
+                new ItemCommentDto(2, 20, "text2", "author", created.plusHours(1)),
+                new ItemCommentDto(2, 21, "text1", "author", created)));
+        List<ItemDto> items = itemService.getItems(1);
+        Assertions.assertEquals(2, items.size());
+        Assertions.assertEquals(10, items.get(0).getLastBooking().getId());
+        Assertions.assertEquals(3, items.get(0).getLastBooking().getBookerId());
+        Assertions.assertNull(items.get(0).getNextBooking());
+        Assertions.assertTrue(items.get(0).getComments().isEmpty());
+        Assertions.assertNull(items.get(1).getLastBooking());
+        Assertions.assertEquals(12, items.get(1).getNextBooking().getId());
+        Assertions.assertEquals(2, items.get(1).getComments().size());
+        Assertions.assertEquals(20, items.get(1).getComments().get(0).getId());
     }
 
     @Test
     public void searchByText() {
-        when(itemRepository.findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString())).thenReturn(new ArrayList<>());
-        List<ItemDto> items = itemService.searchByText("text");
+        passThroughSearchCache();
+        when(itemSearcher.search(eq("text"), eq(false), any(), eq(10))).thenReturn(List.of(item));
+        List<ItemDto> items = itemService.searchByText("text", false, null, 10);
+        Assertions.assertEquals(1, items.size());
+        Assertions.assertEquals(item.getId(), items.get(0).getId());
+        verify(itemSearcher, times(1)).search("text", false, ItemSearchCursor.decode(null), 10);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    public void searchByTextWithCursor() {
+        passThroughSearchCache();
+        String cursor = new ItemSearchCursor(ItemSearchCursor.NAME_CONTAINS, 5).encode();
+        when(itemSearcher.search(anyString(), anyBoolean(), any(), anyInt())).thenReturn(new ArrayList<>());
+        itemService.searchByText("text", true, cursor, 10);
+        verify(itemSearcher, times(1)).search("text", true, new ItemSearchCursor(ItemSearchCursor.NAME_CONTAINS, 5), 10);
+    }
+
+    @Test
+    public void nextSearchCursor() {
+        ItemDto last = ItemMapper.toItemDto(item);
+        when(itemSearcher.cursorAfter(last, "text")).thenReturn(new ItemSearchCursor(ItemSearchCursor.NAME_PREFIX, 0.25, 1));
+        Assertions.assertEquals(new ItemSearchCursor(ItemSearchCursor.NAME_PREFIX, 0.25, 1),
+                ItemSearchCursor.decode(itemService.nextSearchCursor(last, "text")));
+    }
+
+    @Test
+    public void searchByTextFromCache() {
+        ItemDto cached = ItemMapper.toItemDto(item);
+        when(itemSearchCache.get(eq("text"), eq(false), any(), eq(10), any())).thenReturn(List.of(cached));
+        List<ItemDto> items = itemService.searchByText("text", false, null, 10);
+        Assertions.assertEquals(List.of(cached), items);
+        verifyNoInteractions(itemSearcher);
+    }
+
+    @Test
+    public void searchByBlankText() {
+        List<ItemDto> items = itemService.searchByText(" ", false, null, 10);
         Assertions.assertTrue(items.isEmpty());
-        verify(itemRepository, times(1)).findByNameContainsIgnoreCaseOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString());
+        verifyNoInteractions(itemSearcher);
+    }
+
+    @Test
+    public void searchByTextIncorrectLimit() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> itemService.searchByText("text", false, null, 0));
+        verifyNoInteractions(itemSearcher);
+    }
+
+    @Test
+    public void suggest() {
+        when(itemNameTrie.suggest("др", 5)).thenReturn(List.of("Дрель", "Дрезина"));
+        Assertions.assertEquals(List.of("Дрель", "Дрезина"), itemService.suggest("др", 5));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    public void suggestBlankPrefix() {
+        Assertions.assertTrue(itemService.suggest(" ", 5).isEmpty());
+        verifyNoInteractions(itemNameTrie);
+    }
+
+    @Test
+    public void suggestIncorrectLimit() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> itemService.suggest("др", 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> itemService.suggest("др", ItemNameTrie.MAX_SUGGESTIONS + 1));
+        verifyNoInteractions(itemNameTrie);
     }
 
     @Test
     public void addComment() {
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idAndBooker_idAndEndBeforeAndStatusNot(anyInt(),
-                anyInt(),
-                any(),
-                any())).thenReturn(new ArrayList<>(List.of(new Booking())));
+        when(itemRepository.findWithRenter(eq(1), eq(1), any(), eq(BookingStatus.REJECTED.name())))
+                .thenReturn(Optional.of(itemWithRenter(true)));
         when(commentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         CommentCreateDto commentCreateDto = new CommentCreateDto();
         commentCreateDto.setText("text");
         CommentDto commentDto = itemService.addComment(1, 1, commentCreateDto);
         Assertions.assertNotNull(commentDto);
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(userRepository, times(1)).findById(anyInt());
+        Assertions.assertEquals(user.getName(), commentDto.getAuthorName());
+        verify(itemRepository, times(1)).findWithRenter(anyInt(), anyInt(), any(), any());
+        verify(itemRepository, never()).existsById(anyInt());
         verify(commentRepository, times(1)).save(any());
     }
 
     @Test
     public void addCommentItemNotExist() {
-        when(itemRepository.findById(1)).thenReturn(Optional.empty());
+        when(itemRepository.findWithRenter(anyInt(), anyInt(), any(), any())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(1)).thenReturn(false);
         CommentCreateDto commentCreateDto = new CommentCreateDto();
         commentCreateDto.setText("text");
         Assert.assertThrows(ItemNotFoundException.class, () -> itemService.addComment(1, 1, commentCreateDto));
-        verify(itemRepository, times(1)).findById(anyInt());
+        verify(itemRepository, times(1)).existsById(anyInt());
     }
 
     @Test
     public void addCommentUserNotExist() {
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(itemRepository.findWithRenter(anyInt(), anyInt(), any(), any())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(1)).thenReturn(true);
         CommentCreateDto commentCreateDto = new CommentCreateDto();
         commentCreateDto.setText("text");
         Assert.assertThrows(UserNotFoundException.class, () -> itemService.addComment(1, 1, commentCreateDto));
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(userRepository, times(1)).findById(anyInt());
+        verify(itemRepository, times(1)).existsById(anyInt());
     }
 
     @Test
     public void addCommentItemNotRentedByUser() {
-        when(itemRepository.findById(1)).thenReturn(Optional.of(item));
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItem_idAndBooker_idAndEndBeforeAndStatusNot(anyInt(),
-                anyInt(),
-                any(),
-                any())).thenReturn(new ArrayList<>());
+        when(itemRepository.findWithRenter(anyInt(), anyInt(), any(), any()))
+                .thenReturn(Optional.of(itemWithRenter(false)));
         CommentCreateDto commentCreateDto = new CommentCreateDto();
         commentCreateDto.setText("text");
         Assert.assertThrows(ItemNotRentedByUserException.class, () -> itemService.addComment(1, 1, commentCreateDto));
-        verify(itemRepository, times(1)).findById(anyInt());
-        verify(userRepository, times(1)).findById(anyInt());
-        verify(bookingRepository, times(1)).findByItem_idAndBooker_idAndEndBeforeAndStatusNot(anyInt(),
-                anyInt(),
-                any(),
-                any());
+        verify(itemRepository, times(1)).findWithRenter(anyInt(), anyInt(), any(), any());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    public void getAvailability() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        List<FreeSlotDto> slots = List.of(new FreeSlotDto(from, to));
+        when(itemRepository.existsById(1)).thenReturn(true);
+        when(availabilityIndex.findFreeSlots(1, from, to)).thenReturn(slots);
+        Assertions.assertEquals(slots, itemService.getAvailability(1, from, to));
+    }
+
+    @Test
+    public void getAvailabilityPastPeriod() {
+        LocalDateTime to = LocalDateTime.now().minusDays(1);
+        when(itemRepository.existsById(1)).thenReturn(true);
+        Assertions.assertTrue(itemService.getAvailability(1, to.minusDays(1), to).isEmpty());
+        verifyNoInteractions(availabilityIndex);
+    }
+
+    @Test
+    public void getAvailabilityItemNotExist() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(itemRepository.existsById(1)).thenReturn(false);
+        Assert.assertThrows(ItemNotFoundException.class, () -> itemService.getAvailability(1, from, from.plusDays(1)));
+    }
+
+    @Test
+    public void getAvailabilityIncorrectPeriod() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        Assert.assertThrows(IllegalArgumentException.class, () -> itemService.getAvailability(1, from, from));
+    }
+
+    private void passThroughSearchCache() {
+        when(itemSearchCache.get(anyString(), anyBoolean(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<ItemDto>>>getArgument(4).get());
+    }
+
+    private ItemWithRenterDto itemWithRenter(boolean rentedByUser) {
+        return new ItemWithRenterDto() {
+            @Override
+            public Item getItem() {
+                return item;
+            }
+
+            @Override
+            public User getUser() {
+                return user;
+            }
+
+            @Override
+            public boolean isRentedByUser() {
+                return rentedByUser;
+            }
+        };
     }
 }
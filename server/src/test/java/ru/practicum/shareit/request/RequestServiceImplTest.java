@@ -15,8 +15,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.request.storage.RequestRepository;
-import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -32,16 +31,14 @@ public class RequestServiceImplTest {
     @InjectMocks
     private RequestServiceImpl requestService;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private RequestRepository requestRepository;
 
-    private User user;
     private ItemRequest request;
 
     @BeforeEach
     void setUp() {
-        user = new User(1, "name", "test@mail.ru");
         request = new ItemRequest(
                 1,
                 "description",
@@ -53,82 +50,82 @@ public class RequestServiceImplTest {
 
     @Test
     public void addRequest() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(requestRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         ItemRequestDto requestDto = requestService.addRequest(new ItemRequestCreateDto("description"), 1);
         Assertions.assertNotNull(requestDto);
-        verify(userRepository, times(1)).findById(any());
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
         verify(requestRepository, times(1)).save(any());
     }
 
     @Test
     public void addRequestUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
         Assert.assertThrows(UserNotFoundException.class, () -> requestService.addRequest(new ItemRequestCreateDto("description"), 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getRequests() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(requestRepository.findAllByRequestorOrderByCreatedDesc(anyInt())).thenReturn(new ArrayList<>());
         List<ItemRequestDto> requests = requestService.getRequests(1);
         Assertions.assertNotNull(requests);
         Assertions.assertTrue(requests.isEmpty());
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
         verify(requestRepository, times(1)).findAllByRequestorOrderByCreatedDesc(anyInt());
     }
 
     @Test
     public void getRequestsUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
         Assert.assertThrows(UserNotFoundException.class, () -> requestService.getRequests(1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getAllRequests() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(requestRepository.findAllByRequestorNotOrderByCreatedDesc(anyInt(),
                 any())).thenReturn(new ArrayList<>());
         List<ItemRequestDto> requests = requestService.getAllRequests(1, 1, 1);
         Assertions.assertNotNull(requests);
         Assertions.assertTrue(requests.isEmpty());
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
         verify(requestRepository, times(1)).findAllByRequestorNotOrderByCreatedDesc(anyInt(),
                 any());
     }
 
     @Test
     public void getAllRequestsUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
         Assert.assertThrows(UserNotFoundException.class, () -> requestService.getAllRequests(1, 1, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getRequestById() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(requestRepository.findById(1)).thenReturn(Optional.of(request));
         ItemRequestDto requestDto = requestService.getRequestById(1, 1);
         Assertions.assertNotNull(requestDto);
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
         verify(requestRepository, times(1)).findById(anyInt());
     }
 
     @Test
     public void getRequestByIdNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(true);
         when(requestRepository.findById(1)).thenReturn(Optional.empty());
         Assert.assertThrows(RequestNotFoundException.class, () -> requestService.getRequestById(1, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 
     @Test
     public void getRequestByIdUserNotExist() {
-        when(userRepository.findById(1)).thenReturn(Optional.empty());
+        when(userExistenceCache.existsInDatabase(1)).thenReturn(false);
         Assert.assertThrows(UserNotFoundException.class, () -> requestService.getRequestById(1, 1));
-        verify(userRepository, times(1)).findById(any());
+        verify(userExistenceCache, times(1)).existsInDatabase(anyInt());
     }
 }
@@ -7,11 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
@@ -62,6 +64,18 @@ public class UserControllerTest {
         verify(userService, times(1)).getUser(anyInt());
     }
 
+    @Test
+    public void getUserNotModified() throws Exception {
+        when(userService.getUserEtag(1)).thenReturn("\"v1\"");
+        mvc.perform(get("/users/" + 1)
+                        .header("If-None-Match", "\"v1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"v1\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        verify(userService, never()).getUser(anyInt());
+    }
+
     @Test
     public void createUser() throws Exception {
         UserDto userDto = new UserDto(1, "name", "test@mail.ru");
@@ -97,6 +111,18 @@ public class UserControllerTest {
         verify(userService, times(1)).updateUser(anyInt(), any());
     }
 
+    @Test
+    public void updateUserConflict() throws Exception {
+        when(userService.updateUser(anyInt(), any(UserUpdateDto.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1));
+        mvc.perform(patch("/users/" + 1)
+                        .content(objectMapper.writeValueAsString(new UserUpdateDto("newName", null)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void deleteUser() throws Exception {
         mvc.perform(delete("/users/" + 1)
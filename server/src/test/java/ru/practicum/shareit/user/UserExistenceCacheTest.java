@@ -0,0 +1,111 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExistenceCacheTest {
+
+    @InjectMocks
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1, 2, 70));
+        userExistenceCache.load();
+    }
+
+    @Test
+    public void existsWithoutDatabase() {
+        Assertions.assertTrue(userExistenceCache.exists(1));
+        Assertions.assertTrue(userExistenceCache.exists(70));
+        verify(userRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    public void existsFallsBackToDatabase() {
+        when(userRepository.existsById(3)).thenReturn(true);
+        when(userRepository.existsById(4)).thenReturn(false);
+        Assertions.assertTrue(userExistenceCache.exists(3));
+        Assertions.assertTrue(userExistenceCache.exists(3));
+        Assertions.assertFalse(userExistenceCache.exists(4));
+        verify(userRepository, times(1)).existsById(3);
+    }
+
+    @Test
+    public void existsRejectsIncorrectId() {
+        Assertions.assertFalse(userExistenceCache.exists(0));
+        Assertions.assertFalse(userExistenceCache.exists(-1));
+        verify(userRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    public void addAndRemove() {
+        userExistenceCache.add(5);
+        Assertions.assertTrue(userExistenceCache.exists(5));
+        userExistenceCache.remove(1);
+        when(userRepository.existsById(1)).thenReturn(false);
+        Assertions.assertFalse(userExistenceCache.exists(1));
+    }
+
+    @Test
+    public void resync() {
+        when(userRepository.findAllIds()).thenReturn(List.of(2));
+        userExistenceCache.resync();
+        when(userRepository.existsById(1)).thenReturn(false);
+        Assertions.assertFalse(userExistenceCache.exists(1));
+        Assertions.assertTrue(userExistenceCache.exists(2));
+    }
+
+    @Test
+    public void loadKeepsChangesMadeDuringLoad() {
+        when(userRepository.findAllIds()).thenAnswer(invocation -> {
+            userExistenceCache.remove(1);
+            userExistenceCache.add(9);
+            return List.of(1, 2);
+        });
+        userExistenceCache.resync();
+        when(userRepository.existsById(1)).thenReturn(false);
+        Assertions.assertFalse(userExistenceCache.exists(1));
+        Assertions.assertTrue(userExistenceCache.exists(9));
+        Assertions.assertTrue(userExistenceCache.exists(2));
+        verify(userRepository, never()).existsById(9);
+    }
+
+    @Test
+    public void existsInDatabaseClearsDeletedUser() {
+        when(userRepository.existsById(1)).thenReturn(false);
+        Assertions.assertFalse(userExistenceCache.existsInDatabase(1));
+        Assertions.assertFalse(userExistenceCache.exists(1));
+        verify(userRepository, times(2)).existsById(1);
+    }
+
+    @Test
+    public void removeAgainAfterCommit() {
+        when(userRepository.existsById(1)).thenReturn(true).thenReturn(false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userExistenceCache.remove(1);
+            Assertions.assertTrue(userExistenceCache.exists(1));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertFalse(userExistenceCache.exists(1));
+    }
+}
@@ -8,16 +8,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.common.OptimisticRetry;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.storage.ItemNameTrie;
+import ru.practicum.shareit.item.storage.ItemSearchCache;
+import ru.practicum.shareit.item.storage.ItemSearcher;
+import ru.practicum.shareit.request.storage.RequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.user.storage.UserExistenceCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.*;
 
@@ -28,6 +35,18 @@ public class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private ItemSearcher itemSearcher;
+    @Mock
+    private ItemNameTrie itemNameTrie;
+    @Mock
+    private ItemSearchCache itemSearchCache;
+    @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private OptimisticRetry optimisticRetry;
     private User user;
 
     @BeforeEach
@@ -38,11 +57,16 @@ public class UserServiceImplTest {
     @Test
     public void addUser() {
         UserDto userDto = new UserDto(null, "name", "test@mail.ru");
-        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setId(1);
+            return saved;
+        });
         UserDto addedUser = userService.addUser(userDto);
         Assertions.assertNotNull(addedUser);
-        Assertions.assertEquals(userDto, addedUser);
-        verify(userRepository, times(1)).save(any());
+        Assertions.assertEquals(new UserDto(1, "name", "test@mail.ru"), addedUser);
+        verify(userRepository, times(1)).saveAndFlush(any());
+        verify(userExistenceCache, times(1)).add(1);
     }
 
     @Test
@@ -64,6 +88,8 @@ public class UserServiceImplTest {
 
     @Test
     public void updateUser() {
+        when(optimisticRetry.execute(eq(User.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
         UserUpdateDto userUpdateDto = new UserUpdateDto("name", "test@mail.ru");
@@ -75,6 +101,8 @@ public class UserServiceImplTest {
 
     @Test
     public void updateUserNotExist() {
+        when(optimisticRetry.execute(eq(User.class), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
         when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
         Assert.assertThrows(UserNotFoundException.class, () -> userService.updateUser(1,
                 new UserUpdateDto("name", "test@mail.ru")));
@@ -84,9 +112,16 @@ public class UserServiceImplTest {
     @Test
     public void deleteUser() {
         when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(requestRepository.findIdsByRequestor(1)).thenReturn(List.of(5));
         userService.deleteUser(1);
         verify(userRepository, times(1)).findById(any());
         verify(userRepository, times(1)).deleteById(any());
+        verify(userRepository, times(1)).evictOwnedData();
+        verify(userExistenceCache, times(1)).remove(1);
+        verify(itemSearcher, times(1)).removeOwner(1);
+        verify(itemSearcher, times(1)).detachRequests(List.of(5));
+        verify(itemNameTrie, times(1)).removeOwner(1);
+        verify(itemSearchCache, times(1)).invalidateAll();
     }
 
     @Test